@@ -9,7 +9,8 @@ import java.util.List;
 public class Commande {
 	
 @Id
-@GeneratedValue(strategy = GenerationType.IDENTITY)
+@GeneratedValue(strategy = GenerationType.TABLE, generator = "commande_gen")
+@TableGenerator(name = "commande_gen", table = "id_generator", pkColumnValue = "commande", allocationSize = 50)
 private int id;
 	
 @Column(nullable = false)
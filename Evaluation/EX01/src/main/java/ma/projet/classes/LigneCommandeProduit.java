@@ -7,7 +7,8 @@ import javax.persistence.*;
 public class LigneCommandeProduit {
     
 @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ligne_commande_gen")
+    @TableGenerator(name = "ligne_commande_gen", table = "id_generator", pkColumnValue = "ligne_commande_produit", allocationSize = 500)
     private int id;
     
     
@@ -0,0 +1,39 @@
+package ma.projet.dto;
+
+/**
+ * Ligne d'une commande telle qu'affichée : référence, prix et quantité du produit
+ * Construite directement par la requête (expression constructeur), sans entité gérée
+ */
+public class LigneProduitDto {
+
+	private final String reference;
+	private final float prix;
+	private final int quantite;
+
+	public LigneProduitDto(String reference, float prix, int quantite) {
+		this.reference = reference;
+		this.prix = prix;
+		this.quantite = quantite;
+	}
+
+	public String getReference() {
+		return reference;
+	}
+
+	public float getPrix() {
+		return prix;
+	}
+
+	public int getQuantite() {
+		return quantite;
+	}
+
+	@Override
+	public String toString() {
+		return "LigneProduitDto{"
+				+ "reference='" + reference + '\''
+				+ ", prix=" + prix
+				+ ", quantite=" + quantite
+				+ '}';
+	}
+}
@@ -0,0 +1,39 @@
+package ma.projet.dto;
+
+/**
+ * Vue en lecture seule d'un produit : identifiant, référence et prix
+ * Construite directement par la requête (expression constructeur), sans entité gérée
+ */
+public class ProduitDto {
+
+	private final int id;
+	private final String reference;
+	private final float prix;
+
+	public ProduitDto(int id, String reference, float prix) {
+		this.id = id;
+		this.reference = reference;
+		this.prix = prix;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getReference() {
+		return reference;
+	}
+
+	public float getPrix() {
+		return prix;
+	}
+
+	@Override
+	public String toString() {
+		return "ProduitDto{"
+				+ "id=" + id
+				+ ", reference='" + reference + '\''
+				+ ", prix=" + prix
+				+ '}';
+	}
+}
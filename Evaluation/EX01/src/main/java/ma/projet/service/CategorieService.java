@@ -55,6 +55,7 @@ public boolean delete(Categorie o) {
 }
 
 @Override
+@Transactional(readOnly = true)
 public Categorie findById(int id) {
     try {
         Session session = sessionFactory.getCurrentSession();
@@ -66,6 +67,7 @@ public Categorie findById(int id) {
 }
 
 @Override
+@Transactional(readOnly = true)
 public List<Categorie> findAll() {
     try {
         Session session = sessionFactory.getCurrentSession();
@@ -1,12 +1,15 @@
 package ma.projet.service;
 
 import ma.projet.classes.Commande;
+import ma.projet.classes.LigneCommandeProduit;
 import ma.projet.dao.IDao;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.util.List;
 
@@ -18,6 +21,9 @@ class CommandeService implements IDao<Commande> {
 @Autowired
 private SessionFactory sessionFactory;
 
+@Value("${hibernate.jdbc.batch_size}")
+private int batchSize;
+
 @Override
 public boolean create(Commande o) {
   try {
@@ -55,6 +61,7 @@ public boolean delete(Commande o) {
 }
 
 @Override
+@Transactional(readOnly = true)
 public Commande findById(int id) {
   try {
     Session session = sessionFactory.getCurrentSession();
@@ -66,6 +73,7 @@ public Commande findById(int id) {
 }
 
 @Override
+@Transactional(readOnly = true)
 public List<Commande> findAll() {
   try {
     Session session = sessionFactory.getCurrentSession();
@@ -75,4 +83,60 @@ public List<Commande> findAll() {
     return null;
   }
 }
+
+/**
+ * Passer une commande avec toutes ses lignes dans une seule transaction
+ * Les lignes sont enregistrées en cascade et envoyées en lots JDBC
+ */
+public boolean passerCommande(Commande commande, List<LigneCommandeProduit> lignes) {
+  try {
+    Session session = sessionFactory.getCurrentSession();
+    rattacherLignes(commande, lignes);
+    session.save(commande);
+    // Les INSERT partent au flush : une contrainte violée doit lever ici, pas au commit
+    session.flush();
+    return true;
+  } catch (Exception e) {
+    e.printStackTrace();
+    // Tout ou rien : aucune ligne n'est conservée si l'une d'elles échoue
+    TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+    return false;
+  }
+}
+
+/**
+ * Passer plusieurs commandes (avec leurs lignes) dans une seule transaction
+ * La session est vidée toutes les batch_size commandes : les INSERT de chaque table
+ * partent en lots complets et le cache de premier niveau reste borné
+ */
+public boolean passerCommandes(List<Commande> commandes) {
+  try {
+    Session session = sessionFactory.getCurrentSession();
+    for (int i = 0; i < commandes.size(); i++) {
+      Commande commande = commandes.get(i);
+      rattacherLignes(commande, commande.getLigneCommandes());
+      session.save(commande);
+      if ((i + 1) % batchSize == 0) {
+        session.flush();
+        session.clear();
+      }
+    }
+    session.flush();
+    return true;
+  } catch (Exception e) {
+    e.printStackTrace();
+    TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+    return false;
+  }
+}
+
+private void rattacherLignes(Commande commande, List<LigneCommandeProduit> lignes) {
+  if (lignes == null) {
+    return;
+  }
+  for (LigneCommandeProduit ligne : lignes) {
+    ligne.setCommande(commande);
+  }
+  commande.setLigneCommandes(lignes);
+}
 }
\ No newline at end of file
@@ -57,6 +57,7 @@ implements IDao<LigneCommandeProduit>
     }
 
     @Override
+    @Transactional(readOnly = true)
     public LigneCommandeProduit findById(int id) {
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -68,6 +69,7 @@ implements IDao<LigneCommandeProduit>
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<LigneCommandeProduit> findAll() {
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -3,6 +3,8 @@ package ma.projet.service;
 import ma.projet.classes.Categorie;
 import ma.projet.classes.Produit;
 import ma.projet.dao.IDao;
+import ma.projet.dto.LigneProduitDto;
+import ma.projet.dto.ProduitDto;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
@@ -62,6 +64,7 @@ class ProduitService implements IDao<Produit>
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Produit findById(int id)
     {
         try {
@@ -74,6 +77,7 @@ class ProduitService implements IDao<Produit>
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Produit> findAll()
     {
         try {
@@ -88,6 +92,7 @@ class ProduitService implements IDao<Produit>
     /**
      * Afficher la liste des produits par catégorie
      */
+    @Transactional(readOnly = true)
     public List<Produit> findByCategorie(Categorie categorie)
     {
         try {
@@ -105,6 +110,7 @@ class ProduitService implements IDao<Produit>
     /**
      * Afficher les produits commandés entre deux dates
      */
+    @Transactional(readOnly = true)
     public List<Produit> findProduitsCommandesEntreDates(Date dateDebut, Date dateFin)
     {
         try {
@@ -126,6 +132,7 @@ class ProduitService implements IDao<Produit>
     /**
      * Afficher les produits commandés dans une commande donnée
      */
+    @Transactional(readOnly = true)
     public List<Object[]> findProduitsParCommande(int commandeId)
     {
         try {
@@ -148,6 +155,7 @@ class ProduitService implements IDao<Produit>
      * Afficher la liste des produits dont le prix est supérieur à 100 DH
      * (Requête nommée)
      */
+    @Transactional(readOnly = true)
     public List<Produit> findProduitsPrixSuperieur(float prixMin)
     {
         try {
@@ -160,4 +168,51 @@ class ProduitService implements IDao<Produit>
             return null;
         }
     }
+
+    /**
+     * Afficher les produits commandés dans une commande donnée (projection DTO)
+     * Seuls les champs affichés sont lus : aucune entité gérée, aucun dirty checking
+     */
+    @Transactional(readOnly = true)
+    public List<LigneProduitDto> findLignesProduitsParCommande(int commandeId)
+    {
+        try {
+            Session session = sessionFactory.getCurrentSession();
+            Query<LigneProduitDto> query = session.createQuery(
+                "SELECT new ma.projet.dto.LigneProduitDto(p.reference, p.prix, lc.quantite) " +
+                "FROM LigneCommandeProduit lc " +
+                "JOIN lc.produit p " +
+                "WHERE lc.commande.id = :commandeId", LigneProduitDto.class);
+            query.setParameter("commandeId", commandeId);
+            return query.list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Afficher les produits commandés entre deux dates (projection DTO)
+     * EXISTS plutôt qu'un DISTINCT sur la jointure : chaque produit n'est lu qu'une fois
+     */
+    @Transactional(readOnly = true)
+    public List<ProduitDto> findProduitsDtoCommandesEntreDates(Date dateDebut, Date dateFin)
+    {
+        try {
+            Session session = sessionFactory.getCurrentSession();
+            Query<ProduitDto> query = session.createQuery(
+                "SELECT new ma.projet.dto.ProduitDto(p.id, p.reference, p.prix) " +
+                "FROM Produit p " +
+                "WHERE EXISTS (" +
+                "SELECT lc.id FROM LigneCommandeProduit lc " +
+                "WHERE lc.produit = p " +
+                "AND lc.commande.date BETWEEN :dateDebut AND :dateFin)", ProduitDto.class);
+            query.setParameter("dateDebut", dateDebut);
+            query.setParameter("dateFin", dateFin);
+            return query.list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
\ No newline at end of file
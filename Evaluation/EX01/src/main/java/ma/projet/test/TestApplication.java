@@ -4,6 +4,8 @@ import ma.projet.classes.Categorie;
 import ma.projet.classes.Commande;
 import ma.projet.classes.LigneCommandeProduit;
 import ma.projet.classes.Produit;
+import ma.projet.dto.LigneProduitDto;
+import ma.projet.dto.ProduitDto;
 import ma.projet.service.CategorieService;
 import ma.projet.service.CommandeService;
 import ma.projet.service.LigneCommandeService;
@@ -85,21 +87,18 @@ public class TestApplication {
       System.out.println("Liste des produits :");
       System.out.println("Référence\tPrix\t\tQuantité");
       
-      List<Object[]> produitsCommande = produitService.findProduitsParCommande(cmd1.getId());
-      for (Object[] row : produitsCommande) {
-        String reference = (String) row[0];
-        float prix = (float) row[1];
-        int quantite = (int) row[2];
-        System.out.println(reference + "\t\t" + prix + " DH\t" + quantite);
+      List<LigneProduitDto> produitsCommande = produitService.findLignesProduitsParCommande(cmd1.getId());
+      for (LigneProduitDto ligne : produitsCommande) {
+        System.out.println(ligne.getReference() + "\t\t" + ligne.getPrix() + " DH\t" + ligne.getQuantite());
       }
 
       System.out.println("\nÉtape 7 : produits commandés entre deux dates");
       Date dateDebut = sdf.parse("01/03/2013");
       Date dateFin = sdf.parse("30/04/2013");
       
-      List<Produit> produitsEntreDates = produitService.findProduitsCommandesEntreDates(dateDebut, dateFin);
+      List<ProduitDto> produitsEntreDates = produitService.findProduitsDtoCommandesEntreDates(dateDebut, dateFin);
       System.out.println("Liste des produits commandés du " + sdf.format(dateDebut) + " au " + sdf.format(dateFin) + " :");
-      for (Produit p : produitsEntreDates) {
+      for (ProduitDto p : produitsEntreDates) {
         System.out.println("  • Réf " + p.getReference() + " — " + p.getPrix() + " DH");
       }
 
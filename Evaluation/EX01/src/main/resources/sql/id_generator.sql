@@ -0,0 +1,7 @@
+-- Aligne la table id_generator sur les identifiants déjà présents (ex. lignes créées en IDENTITY).
+-- Avec l'optimiseur pooled, next_val est la borne haute du prochain bloc d'identifiants
+-- (allocationSize : 50 pour commande, 500 pour ligne_commande_produit), d'où MAX(id) + allocationSize.
+insert into id_generator (sequence_name, next_val) select 'commande', 0 from (select 1 as x) t where not exists (select 1 from id_generator where sequence_name = 'commande');
+update id_generator set next_val = (select coalesce(max(id), 0) + 50 from commande) where sequence_name = 'commande' and next_val < (select coalesce(max(id), 0) + 50 from commande);
+insert into id_generator (sequence_name, next_val) select 'ligne_commande_produit', 0 from (select 1 as x) t where not exists (select 1 from id_generator where sequence_name = 'ligne_commande_produit');
+update id_generator set next_val = (select coalesce(max(id), 0) + 500 from ligne_commande_produit) where sequence_name = 'ligne_commande_produit' and next_val < (select coalesce(max(id), 0) + 500 from ligne_commande_produit);
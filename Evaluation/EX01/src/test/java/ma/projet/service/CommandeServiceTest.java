@@ -0,0 +1,156 @@
+package ma.projet.service;
+
+import ma.projet.classes.Categorie;
+import ma.projet.classes.Commande;
+import ma.projet.classes.LigneCommandeProduit;
+import ma.projet.classes.Produit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// passerCommande / passerCommandes contre H2 (profil par défaut)
+// Mesure complète : -Dbenchmark.rows=10000 (commandes de 20 lignes)
+class CommandeServiceTest {
+
+  private static final int COMMANDES = Integer.getInteger("benchmark.rows", 200);
+  private static final int LIGNES_PAR_COMMANDE = 20;
+
+  @BeforeAll
+  static void configurerH2()
+  {
+    System.setProperty("db.driver", "org.h2.Driver");
+    System.setProperty("db.username", "sa");
+    System.setProperty("db.password", "");
+    System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+    System.setProperty("hibernate.show_sql", "false");
+  }
+
+  private static ClassPathXmlApplicationContext contexte(String base, String ddl)
+  {
+    System.setProperty("db.url", "jdbc:h2:mem:" + base + ";DB_CLOSE_DELAY=-1");
+    System.setProperty("hibernate.hbm2ddl.auto", ddl);
+    return new ClassPathXmlApplicationContext("applicationContext.xml");
+  }
+
+  private static List<Produit> creerProduits(ClassPathXmlApplicationContext context, int n)
+  {
+    Categorie categorie = new Categorie("c1", "l1");
+    context.getBean(CategorieService.class).create(categorie);
+    List<Produit> produits = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      Produit produit = new Produit("REF" + i, 10 + i, categorie);
+      context.getBean(ProduitService.class).create(produit);
+      produits.add(produit);
+    }
+    return produits;
+  }
+
+  private static int compter(ClassPathXmlApplicationContext context, String table)
+  {
+    return new JdbcTemplate(context.getBean(DataSource.class))
+        .queryForObject("select count(*) from " + table, Integer.class);
+  }
+
+  @Test
+  void commandeAnnuleeEnEntierSiUneLigneEchoueAuFlush()
+  {
+    try (ClassPathXmlApplicationContext context = contexte("ex01_rollback", "create")) {
+      Produit produit = creerProduits(context, 1).get(0);
+      // Produit détaché inexistant : la clé étrangère n'est violée qu'à l'envoi des INSERT
+      Produit inexistant = new Produit("ABSENT", 1, produit.getCategorie());
+      inexistant.setId(999_999);
+
+      Commande commande = new Commande(new Date());
+      boolean ok = context.getBean(CommandeService.class).passerCommande(commande, new ArrayList<>(Arrays.asList(
+          new LigneCommandeProduit(null, produit, 1),
+          new LigneCommandeProduit(null, inexistant, 2))));
+
+      assertFalse(ok);
+      assertEquals(0, compter(context, "commande"));
+      assertEquals(0, compter(context, "ligne_commande_produit"));
+    }
+  }
+
+  @Test
+  void identifiantsGeneresApresLesLignesExistantes()
+  {
+    List<Produit> produits;
+    try (ClassPathXmlApplicationContext context = contexte("ex01_ids", "create")) {
+      produits = creerProduits(context, 1);
+      // Lignes créées hors de Hibernate (ancien mapping IDENTITY), après le recalage du démarrage
+      JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+      jdbc.update("insert into commande (id, date) select x, current_date from system_range(1, 120) t");
+      jdbc.update("insert into ligne_commande_produit (id, commande_id, produit_id, quantite) "
+          + "select x, 1, ?, 1 from system_range(1, 700) t", produits.get(0).getId());
+    }
+
+    // Redémarrage sur la même base : id_generator.sql recale les générateurs sur MAX(id)
+    try (ClassPathXmlApplicationContext context = contexte("ex01_ids", "update")) {
+      Commande commande = new Commande(new Date());
+      List<LigneCommandeProduit> lignes = new ArrayList<>();
+      lignes.add(new LigneCommandeProduit(null, produits.get(0), 3));
+
+      assertTrue(context.getBean(CommandeService.class).passerCommande(commande, lignes));
+      assertTrue(commande.getId() > 120, "id commande " + commande.getId());
+      assertTrue(lignes.get(0).getId() > 700, "id ligne " + lignes.get(0).getId());
+      assertEquals(121, compter(context, "commande"));
+    }
+  }
+
+  @Test
+  void passerCommandesPlusRapideQueUneTransactionParLigne()
+  {
+    try (ClassPathXmlApplicationContext context = contexte("ex01_debit", "create")) {
+      List<Produit> produits = creerProduits(context, LIGNES_PAR_COMMANDE);
+      CommandeService commandeService = context.getBean(CommandeService.class);
+      LigneCommandeService ligneCommandeService = context.getBean(LigneCommandeService.class);
+
+      // Avant : create() par commande puis par ligne, une transaction chacun
+      long debut = System.nanoTime();
+      for (int c = 0; c < COMMANDES; c++) {
+        Commande commande = new Commande(new Date());
+        commandeService.create(commande);
+        for (int l = 0; l < LIGNES_PAR_COMMANDE; l++) {
+          ligneCommandeService.create(new LigneCommandeProduit(commande, produits.get(l), l + 1));
+        }
+      }
+      double unitaireParSeconde = COMMANDES * LIGNES_PAR_COMMANDE / secondes(debut);
+
+      // Après : toutes les commandes et leurs lignes dans une transaction, en lots JDBC
+      List<Commande> commandes = new ArrayList<>();
+      for (int c = 0; c < COMMANDES; c++) {
+        Commande commande = new Commande(new Date());
+        List<LigneCommandeProduit> lignes = new ArrayList<>();
+        for (int l = 0; l < LIGNES_PAR_COMMANDE; l++) {
+          lignes.add(new LigneCommandeProduit(null, produits.get(l), l + 1));
+        }
+        commande.setLigneCommandes(lignes);
+        commandes.add(commande);
+      }
+      debut = System.nanoTime();
+      assertTrue(commandeService.passerCommandes(commandes));
+      double lotParSeconde = COMMANDES * LIGNES_PAR_COMMANDE / secondes(debut);
+
+      System.out.printf("%d commandes x %d lignes : create() = %.0f lignes/s, passerCommandes = %.0f lignes/s (x%.1f)%n",
+          COMMANDES, LIGNES_PAR_COMMANDE, unitaireParSeconde, lotParSeconde, lotParSeconde / unitaireParSeconde);
+
+      assertEquals(2 * COMMANDES, compter(context, "commande"));
+      assertEquals(2 * COMMANDES * LIGNES_PAR_COMMANDE, compter(context, "ligne_commande_produit"));
+      assertTrue(lotParSeconde > unitaireParSeconde, "passerCommandes devrait être plus rapide que create() par ligne");
+    }
+  }
+
+  private static double secondes(long debut)
+  {
+    return (System.nanoTime() - debut) / 1e9;
+  }
+}
@@ -0,0 +1,176 @@
+package ma.projet.service;
+
+import ma.projet.dto.LigneProduitDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Projections DTO de ProduitService comparées aux variantes entité / Object[] : mêmes résultats,
+// latence et allocation mesurées sur 100 000 commandes de 3 lignes (-Dbenchmark.rows=... pour changer)
+class ProduitDtoTest {
+
+  private static final int COMMANDES = Integer.getInteger("benchmark.rows", 100_000);
+  private static final int PRODUITS = 1000;
+  private static final int LIGNES_PAR_COMMANDE = 3;
+  private static final int RECHERCHES_PAR_COMMANDE = 2000;
+
+  private static ClassPathXmlApplicationContext context;
+  private static ProduitService produitService;
+  private static Statistics statistics;
+  private static Date debut;
+  private static Date fin;
+
+  @BeforeAll
+  static void remplirLaBase() throws ParseException
+  {
+    System.setProperty("db.driver", "org.h2.Driver");
+    System.setProperty("db.url", "jdbc:h2:mem:ex01_dto;DB_CLOSE_DELAY=-1");
+    System.setProperty("db.username", "sa");
+    System.setProperty("db.password", "");
+    System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+    System.setProperty("hibernate.hbm2ddl.auto", "create");
+    System.setProperty("hibernate.show_sql", "false");
+    context = new ClassPathXmlApplicationContext("applicationContext.xml");
+    produitService = context.getBean(ProduitService.class);
+    statistics = context.getBean(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+
+    // Commandes réparties sur 5 ans ; la ligne k de la commande c porte le produit 1 + (7c + 13k) % PRODUITS
+    JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+    jdbc.update("insert into categorie (id, code, libelle) values (1, 'c1', 'l1')");
+    jdbc.update("insert into produit (id, reference, prix, categorie_id) "
+        + "select x, 'REF' || x, 10 + mod(x, 90), 1 from system_range(1, ?) t", PRODUITS);
+    jdbc.update("insert into commande (id, date) "
+        + "select x, dateadd('DAY', mod(x * 37, 1826), date '2020-01-01') from system_range(1, ?) t", COMMANDES);
+    jdbc.update("insert into ligne_commande_produit (id, commande_id, produit_id, quantite) "
+        + "select c.x * ? + k.x, c.x, 1 + mod(c.x * 7 + k.x * 13, ?), 1 + k.x "
+        + "from system_range(1, ?) c, system_range(0, ?) k",
+        LIGNES_PAR_COMMANDE, PRODUITS, COMMANDES, LIGNES_PAR_COMMANDE - 1);
+
+    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+    debut = format.parse("2021-01-01");
+    fin = format.parse("2023-12-31");
+  }
+
+  @AfterAll
+  static void fermer()
+  {
+    context.close();
+  }
+
+  @Test
+  void produitsCommandesEntreDatesIdentiquesALaVersionEntite()
+  {
+    List<String> entites = produitService.findProduitsCommandesEntreDates(debut, fin).stream()
+        .map(p -> p.getId() + ":" + p.getReference() + ":" + p.getPrix())
+        .sorted().collect(Collectors.toList());
+    List<String> dtos = produitService.findProduitsDtoCommandesEntreDates(debut, fin).stream()
+        .map(p -> p.getId() + ":" + p.getReference() + ":" + p.getPrix())
+        .sorted().collect(Collectors.toList());
+
+    assertFalse(dtos.isEmpty());
+    assertEquals(entites, dtos);
+  }
+
+  @Test
+  void lignesParCommandeIdentiquesALaVersionObjectArray()
+  {
+    for (int commandeId = 1; commandeId <= COMMANDES; commandeId += Math.max(1, COMMANDES / 50)) {
+      List<String> tableaux = produitService.findProduitsParCommande(commandeId).stream()
+          .map(r -> r[0] + ":" + r[1] + ":" + r[2])
+          .sorted().collect(Collectors.toList());
+      List<String> dtos = produitService.findLignesProduitsParCommande(commandeId).stream()
+          .map(l -> l.getReference() + ":" + l.getPrix() + ":" + l.getQuantite())
+          .sorted().collect(Collectors.toList());
+
+      assertEquals(LIGNES_PAR_COMMANDE, dtos.size(), "commande " + commandeId);
+      assertEquals(tableaux, dtos, "commande " + commandeId);
+    }
+  }
+
+  @Test
+  void projectionsDtoMoinsCouteusesQueLesEntites()
+  {
+    Mesure entites = mesurer(() -> produitService.findProduitsCommandesEntreDates(debut, fin));
+    Mesure dtos = mesurer(() -> produitService.findProduitsDtoCommandesEntreDates(debut, fin));
+    System.out.printf("%d commandes, produits commandés sur 3 ans : entités = %s, DTO = %s%n", COMMANDES, entites, dtos);
+
+    Mesure tableaux = mesurer(() -> {
+      List<List<Object[]>> lignes = new ArrayList<>();
+      for (int i = 1; i <= RECHERCHES_PAR_COMMANDE; i++) {
+        lignes.add(produitService.findProduitsParCommande(1 + (int) ((long) i * 7919 % COMMANDES)));
+      }
+      return lignes;
+    });
+    Mesure lignesDto = mesurer(() -> {
+      List<List<LigneProduitDto>> lignes = new ArrayList<>();
+      for (int i = 1; i <= RECHERCHES_PAR_COMMANDE; i++) {
+        lignes.add(produitService.findLignesProduitsParCommande(1 + (int) ((long) i * 7919 % COMMANDES)));
+      }
+      return lignes;
+    });
+    System.out.printf("%d recherches par commande : Object[] = %s, DTO = %s%n", RECHERCHES_PAR_COMMANDE, tableaux, lignesDto);
+
+    // Entités : produits puis leur catégorie (chargement immédiat) ; DTO : une seule requête, aucune entité
+    assertEquals(1, dtos.requetes);
+    assertEquals(0, dtos.entitesChargees);
+    assertTrue(entites.entitesChargees > 0);
+    assertTrue(dtos.octets < entites.octets, "La projection DTO doit allouer moins que les entités");
+    assertEquals(0, lignesDto.entitesChargees);
+  }
+
+  // Meilleur temps de 3 exécutions ; allocation, requêtes et entités chargées de la dernière
+  private static Mesure mesurer(Supplier<List<?>> requete)
+  {
+    Mesure mesure = new Mesure();
+    mesure.millis = Double.MAX_VALUE;
+    for (int i = 0; i < 3; i++) {
+      statistics.clear();
+      long octets = octetsAlloues();
+      long depart = System.nanoTime();
+      List<?> resultat = requete.get();
+      mesure.millis = Math.min(mesure.millis, (System.nanoTime() - depart) / 1_000_000.0);
+      mesure.octets = octetsAlloues() - octets;
+      mesure.requetes = statistics.getPrepareStatementCount();
+      mesure.entitesChargees = statistics.getEntityLoadCount();
+      assertNotNull(resultat);
+    }
+    return mesure;
+  }
+
+  // Octets alloués jusqu'ici par le thread courant (extension HotSpot de ThreadMXBean)
+  private static long octetsAlloues()
+  {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static final class Mesure {
+    double millis;
+    long octets;
+    long requetes;
+    long entitesChargees;
+
+    @Override
+    public String toString()
+    {
+      return String.format("%.0f ms / %d Ko / %d requêtes / %d entités", millis, octets / 1024, requetes, entitesChargees);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package ma.projet.test;
+
+import ma.projet.classes.Categorie;
+import ma.projet.classes.Commande;
+import ma.projet.classes.LigneCommandeProduit;
+import ma.projet.classes.Produit;
+import ma.projet.service.CategorieService;
+import ma.projet.service.CommandeService;
+import ma.projet.service.ProduitService;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compare le profil par défaut et le profil "performance" de applicationContext.xml contre H2
+// Usage : mvn test-compile exec:java -Dexec.mainClass=ma.projet.test.PerformanceBenchmark -Dexec.classpathScope=test [-Dexec.args=<nombre d'opérations>]
+// Ajouter -Dbenchmark.url=jdbc:h2:tcp://localhost/mem: pour un serveur H2
+public class PerformanceBenchmark {
+
+  private static final String[] PROFILS = {"default", "performance"};
+
+  // étape -> durée en ms pour chaque profil, dans l'ordre de PROFILS
+  private static final Map<String, long[]> RESULTATS = new LinkedHashMap<>();
+
+  private interface Etape {
+    void executer() throws Exception;
+  }
+
+  public static void main(String[] args) throws Exception
+  {
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+    // Les propriétés système priment sur application.properties
+    System.setProperty("db.driver", "org.h2.Driver");
+    System.setProperty("db.username", "sa");
+    System.setProperty("db.password", "");
+    System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+    System.setProperty("hibernate.hbm2ddl.auto", "create");
+
+    for (int p = 0; p < PROFILS.length; p++) {
+      System.setProperty("spring.profiles.active", PROFILS[p]);
+      System.setProperty("db.url", System.getProperty("benchmark.url", "jdbc:h2:mem:")
+                                   + "ex01_" + PROFILS[p] + ";DB_CLOSE_DELAY=-1");
+      try (ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("applicationContext.xml")) {
+        executer(context, p, n);
+      }
+    }
+
+    System.out.println();
+    System.out.printf("%-32s %12s %12s %8s%n", "Étape", "défaut (ms)", "perf. (ms)", "gain");
+    for (Map.Entry<String, long[]> e : RESULTATS.entrySet()) {
+      long[] ms = e.getValue();
+      System.out.printf("%-32s %12d %12d %7.1fx%n", e.getKey(), ms[0], ms[1], (double) ms[0] / Math.max(ms[1], 1));
+    }
+  }
+
+  private static void mesurer(String etape, int profil, Etape e) throws Exception
+  {
+    long debut = System.nanoTime();
+    e.executer();
+    RESULTATS.computeIfAbsent(etape, k -> new long[PROFILS.length])[profil] = (System.nanoTime() - debut) / 1_000_000;
+  }
+
+  // Même enchaînement que TestApplication, à plus grande échelle : une transaction par appel de service
+  private static void executer(ClassPathXmlApplicationContext context, int p, int n) throws Exception
+  {
+    CategorieService categorieService = context.getBean(CategorieService.class);
+    ProduitService produitService = context.getBean(ProduitService.class);
+    CommandeService commandeService = context.getBean(CommandeService.class);
+
+    Categorie categorie = new Categorie("c1", "l1");
+    categorieService.create(categorie);
+    List<Produit> produits = new ArrayList<>();
+
+    mesurer("create produit x" + n, p, () -> {
+      for (int i = 0; i < n; i++) {
+        Produit produit = new Produit("REF" + i, 10 + i % 100, categorie);
+        produitService.create(produit);
+        produits.add(produit);
+      }
+    });
+    mesurer("findById produit x" + n, p, () -> {
+      for (Produit produit : produits) {
+        produitService.findById(produit.getId());
+      }
+    });
+    mesurer("update produit x" + n, p, () -> {
+      for (Produit produit : produits) {
+        produit.setPrix(produit.getPrix() + 1);
+        produitService.update(produit);
+      }
+    });
+    mesurer("passerCommandes " + n + " x 10 lignes", p, () -> {
+      List<Commande> commandes = new ArrayList<>();
+      for (int c = 0; c < n; c++) {
+        Commande commande = new Commande(new Date());
+        List<LigneCommandeProduit> lignes = new ArrayList<>();
+        for (int l = 0; l < 10; l++) {
+          lignes.add(new LigneCommandeProduit(null, produits.get((c + l) % n), l + 1));
+        }
+        commande.setLigneCommandes(lignes);
+        commandes.add(commande);
+      }
+      commandeService.passerCommandes(commandes);
+    });
+    mesurer("lignes par commande x" + n, p, () -> {
+      for (int i = 1; i <= n; i++) {
+        produitService.findLignesProduitsParCommande(i);
+      }
+    });
+  }
+}
@@ -1,10 +1,49 @@
 package ma.projet.classes;
 
+import ma.projet.dto.EmployeTableauDeBordDto;
+
 import javax.persistence.*;
 import java.util.List;
 
 @Entity
 @Table(name = "employe")
+// projets gérés et tâches réalisées agrégés chacun dans une table dérivée, puis joints une fois par employé
+@NamedNativeQuery(
+    name = "findTableauDeBordEmployes",
+    query = "SELECT e.id AS employeId, e.nom AS nom, e.prenom AS prenom, "
+          + "COALESCE(pg.nbProjetsGeres, 0) AS nbProjetsGeres, "
+          + "COALESCE(tr.nbTachesRealisees, 0) AS nbTachesRealisees, "
+          + "COALESCE(tr.coutTachesRealisees, 0) AS coutTachesRealisees, "
+          + "tr.dateDebutReelle AS dateDebutReelle, tr.dateFinReelle AS dateFinReelle "
+          + "FROM employe e "
+          + "LEFT JOIN (SELECT p.chef_projet_id, COUNT(*) AS nbProjetsGeres "
+          + "FROM projet p GROUP BY p.chef_projet_id) pg ON pg.chef_projet_id = e.id "
+          + "LEFT JOIN (SELECT a.employe_id, COUNT(*) AS nbTachesRealisees, SUM(t.prix) AS coutTachesRealisees, "
+          + "MIN(a.dateDebutReelle) AS dateDebutReelle, MAX(a.dateFinReelle) AS dateFinReelle "
+          + "FROM (SELECT et.employe_id, et.tache_id, MIN(et.dateDebutReelle) AS dateDebutReelle, "
+          + "MAX(et.dateFinReelle) AS dateFinReelle "
+          + "FROM employe_tache et GROUP BY et.employe_id, et.tache_id) a "
+          + "JOIN tache t ON t.id = a.tache_id "
+          + "GROUP BY a.employe_id) tr ON tr.employe_id = e.id "
+          + "ORDER BY e.id",
+    resultSetMapping = "EmployeTableauDeBord"
+)
+@SqlResultSetMapping(
+    name = "EmployeTableauDeBord",
+    classes = @ConstructorResult(
+        targetClass = EmployeTableauDeBordDto.class,
+        columns = {
+            @ColumnResult(name = "employeId", type = Integer.class),
+            @ColumnResult(name = "nom"),
+            @ColumnResult(name = "prenom"),
+            @ColumnResult(name = "nbProjetsGeres", type = Long.class),
+            @ColumnResult(name = "nbTachesRealisees", type = Long.class),
+            @ColumnResult(name = "coutTachesRealisees", type = Double.class),
+            @ColumnResult(name = "dateDebutReelle"),
+            @ColumnResult(name = "dateFinReelle")
+        }
+    )
+)
 public class Employe {
 	
 @Id
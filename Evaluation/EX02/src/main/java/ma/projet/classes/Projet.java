@@ -1,11 +1,49 @@
 package ma.projet.classes;
 
+import ma.projet.dto.ProjetTableauDeBordDto;
+
 import javax.persistence.*;
 import java.util.Date;
 import java.util.List;
 
 @Entity
 @Table(name = "projet")
+// une seule requête groupée pour tous les projets ; les affectations sont d'abord réduites à une ligne par tâche
+// pour qu'une tâche réalisée par plusieurs employés ne soit comptée (et coûtée) qu'une fois
+@NamedNativeQuery(
+    name = "findTableauDeBordProjets",
+    query = "SELECT p.id AS projetId, p.nom AS nom, p.dateDebut AS dateDebut, p.dateFin AS dateFin, "
+          + "COUNT(t.id) AS nbTachesPlanifiees, COALESCE(SUM(t.prix), 0) AS coutPlanifie, "
+          + "COUNT(r.tache_id) AS nbTachesRealisees, "
+          + "COALESCE(SUM(CASE WHEN r.tache_id IS NOT NULL THEN t.prix END), 0) AS coutRealise, "
+          + "MIN(r.dateDebutReelle) AS dateDebutReelle, MAX(r.dateFinReelle) AS dateFinReelle "
+          + "FROM projet p "
+          + "LEFT JOIN tache t ON t.projet_id = p.id "
+          + "LEFT JOIN (SELECT et.tache_id, MIN(et.dateDebutReelle) AS dateDebutReelle, "
+          + "MAX(et.dateFinReelle) AS dateFinReelle "
+          + "FROM employe_tache et GROUP BY et.tache_id) r ON r.tache_id = t.id "
+          + "GROUP BY p.id, p.nom, p.dateDebut, p.dateFin "
+          + "ORDER BY p.id",
+    resultSetMapping = "ProjetTableauDeBord"
+)
+@SqlResultSetMapping(
+    name = "ProjetTableauDeBord",
+    classes = @ConstructorResult(
+        targetClass = ProjetTableauDeBordDto.class,
+        columns = {
+            @ColumnResult(name = "projetId", type = Integer.class),
+            @ColumnResult(name = "nom"),
+            @ColumnResult(name = "dateDebut"),
+            @ColumnResult(name = "dateFin"),
+            @ColumnResult(name = "nbTachesPlanifiees", type = Long.class),
+            @ColumnResult(name = "coutPlanifie", type = Double.class),
+            @ColumnResult(name = "nbTachesRealisees", type = Long.class),
+            @ColumnResult(name = "coutRealise", type = Double.class),
+            @ColumnResult(name = "dateDebutReelle"),
+            @ColumnResult(name = "dateFinReelle")
+        }
+    )
+)
 public 
 class Projet {
     
@@ -10,6 +10,21 @@ import java.util.List;
 @NamedQuery(
     name = "findTachesPrixSuperieur",
     query = "SELECT t FROM Tache t WHERE t.prix > :prixMin"
+),
+// exports : colonnes scalaires uniquement, aucune entité n'est instanciée pendant le parcours
+@NamedQuery(
+    name = "scrollTachesPrixSuperieur",
+    query = "SELECT t.id, t.nom, t.dateDebut, t.dateFin, t.prix, p.id, p.nom "
+          + "FROM Tache t JOIN t.projet p WHERE t.prix > :prixMin"
+),
+// EXISTS plutôt que DISTINCT sur la jointure : les lignes peuvent être envoyées sans tri ni dédoublonnage préalable
+@NamedQuery(
+    name = "scrollTachesRealiseesEntreDates",
+    query = "SELECT t.id, t.nom, t.dateDebut, t.dateFin, t.prix, p.id, p.nom "
+          + "FROM Tache t JOIN t.projet p "
+          + "WHERE EXISTS (SELECT et.id FROM EmployeTache et WHERE et.tache = t "
+          + "AND (et.dateDebutReelle BETWEEN :dateDebut AND :dateFin "
+          + "OR et.dateFinReelle BETWEEN :dateDebut AND :dateFin))"
 )
 })
 public class Tache {
@@ -0,0 +1,76 @@
+package ma.projet.dto;
+
+import java.util.Date;
+
+/**
+ * Ligne du tableau de bord d'un employé : projets gérés, tâches réalisées, coût et dates
+ * Construite directement par la requête (mapping constructeur), sans entité gérée
+ */
+public class EmployeTableauDeBordDto {
+
+    private final int employeId;
+    private final String nom;
+    private final String prenom;
+    private final long nbProjetsGeres;
+    private final long nbTachesRealisees;
+    private final double coutTachesRealisees;
+    private final Date dateDebutReelle;
+    private final Date dateFinReelle;
+
+    public EmployeTableauDeBordDto(int employeId, String nom, String prenom, long nbProjetsGeres,
+                                   long nbTachesRealisees, double coutTachesRealisees,
+                                   Date dateDebutReelle, Date dateFinReelle) {
+        this.employeId = employeId;
+        this.nom = nom;
+        this.prenom = prenom;
+        this.nbProjetsGeres = nbProjetsGeres;
+        this.nbTachesRealisees = nbTachesRealisees;
+        this.coutTachesRealisees = coutTachesRealisees;
+        this.dateDebutReelle = dateDebutReelle;
+        this.dateFinReelle = dateFinReelle;
+    }
+
+    public int getEmployeId() {
+        return employeId;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public long getNbProjetsGeres() {
+        return nbProjetsGeres;
+    }
+
+    public long getNbTachesRealisees() {
+        return nbTachesRealisees;
+    }
+
+    public double getCoutTachesRealisees() {
+        return coutTachesRealisees;
+    }
+
+    public Date getDateDebutReelle() {
+        return dateDebutReelle;
+    }
+
+    public Date getDateFinReelle() {
+        return dateFinReelle;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeTableauDeBordDto{"
+            + "employeId=" + employeId
+            + ", nom='" + nom + '\''
+            + ", prenom='" + prenom + '\''
+            + ", nbProjetsGeres=" + nbProjetsGeres
+            + ", nbTachesRealisees=" + nbTachesRealisees
+            + ", coutTachesRealisees=" + coutTachesRealisees
+            + '}';
+    }
+}
@@ -0,0 +1,97 @@
+package ma.projet.dto;
+
+import java.util.Date;
+
+/**
+ * Ligne du tableau de bord d'un projet : tâches planifiées et réalisées, coûts et dates
+ * Construite directement par la requête (mapping constructeur), sans entité gérée
+ */
+public class ProjetTableauDeBordDto {
+
+    private final int projetId;
+    private final String nom;
+    private final Date dateDebut;
+    private final Date dateFin;
+    private final long nbTachesPlanifiees;
+    private final double coutPlanifie;
+    private final long nbTachesRealisees;
+    private final double coutRealise;
+    private final Date dateDebutReelle;
+    private final Date dateFinReelle;
+
+    public ProjetTableauDeBordDto(int projetId, String nom, Date dateDebut, Date dateFin,
+                                  long nbTachesPlanifiees, double coutPlanifie,
+                                  long nbTachesRealisees, double coutRealise,
+                                  Date dateDebutReelle, Date dateFinReelle) {
+        this.projetId = projetId;
+        this.nom = nom;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.nbTachesPlanifiees = nbTachesPlanifiees;
+        this.coutPlanifie = coutPlanifie;
+        this.nbTachesRealisees = nbTachesRealisees;
+        this.coutRealise = coutRealise;
+        this.dateDebutReelle = dateDebutReelle;
+        this.dateFinReelle = dateFinReelle;
+    }
+
+    public int getProjetId() {
+        return projetId;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public Date getDateDebut() {
+        return dateDebut;
+    }
+
+    public Date getDateFin() {
+        return dateFin;
+    }
+
+    public long getNbTachesPlanifiees() {
+        return nbTachesPlanifiees;
+    }
+
+    public double getCoutPlanifie() {
+        return coutPlanifie;
+    }
+
+    public long getNbTachesRealisees() {
+        return nbTachesRealisees;
+    }
+
+    public double getCoutRealise() {
+        return coutRealise;
+    }
+
+    /**
+     * Première date de début réelle parmi les affectations du projet, null si aucune tâche n'est réalisée
+     */
+    public Date getDateDebutReelle() {
+        return dateDebutReelle;
+    }
+
+    /**
+     * Dernière date de fin réelle parmi les affectations du projet, null si aucune tâche n'est réalisée
+     */
+    public Date getDateFinReelle() {
+        return dateFinReelle;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjetTableauDeBordDto{"
+            + "projetId=" + projetId
+            + ", nom='" + nom + '\''
+            + ", nbTachesPlanifiees=" + nbTachesPlanifiees
+            + ", coutPlanifie=" + coutPlanifie
+            + ", nbTachesRealisees=" + nbTachesRealisees
+            + ", coutRealise=" + coutRealise
+            + ", dateDebutReelle=" + dateDebutReelle
+            + ", dateFinReelle=" + dateFinReelle
+            + '}';
+    }
+}
@@ -4,6 +4,7 @@ import ma.projet.classes.Employe;
 import ma.projet.classes.Projet;
 import ma.projet.classes.Tache;
 import ma.projet.dao.IDao;
+import ma.projet.dto.EmployeTableauDeBordDto;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
@@ -59,6 +60,7 @@ public boolean delete(Employe o) {
 }
 
 @Override
+@Transactional(readOnly = true)
 public Employe findById(int id) {
   try {
     Session session = sessionFactory.getCurrentSession();
@@ -70,6 +72,7 @@ public Employe findById(int id) {
 }
 
 @Override
+@Transactional(readOnly = true)
 public List<Employe> findAll() {
   try {
     Session session = sessionFactory.getCurrentSession();
@@ -83,6 +86,7 @@ public List<Employe> findAll() {
 /**
  * Afficher la liste des tâches réalisées par un employé
  */
+@Transactional(readOnly = true)
 public List<Tache> findTachesRealiseesByEmploye(int employeId) {
   try {
     Session session = sessionFactory.getCurrentSession();
@@ -102,6 +106,7 @@ public List<Tache> findTachesRealiseesByEmploye(int employeId) {
 /**
  * Afficher la liste des projets gérés par un employé
  */
+@Transactional(readOnly = true)
 public List<Projet> findProjetsGeresByEmploye(int employeId) {
   try {
     Session session = sessionFactory.getCurrentSession();
@@ -115,4 +120,19 @@ public List<Projet> findProjetsGeresByEmploye(int employeId) {
     return null;
   }
 }
+
+/**
+ * Tableau de bord de tous les employés : projets gérés, tâches réalisées, coût et dates réelles
+ * Une seule requête groupée (requête native nommée), quel que soit le nombre d'employés
+ */
+@Transactional(readOnly = true)
+public List<EmployeTableauDeBordDto> findTableauDeBordEmployes() {
+  try {
+    Session session = sessionFactory.getCurrentSession();
+    return session.createNamedQuery("findTableauDeBordEmployes", EmployeTableauDeBordDto.class).list();
+  } catch (Exception e) {
+    e.printStackTrace();
+    return null;
+  }
+}
 }
\ No newline at end of file
@@ -59,6 +59,7 @@ implements IDao<EmployeTache> {
   }
 
   @Override
+  @Transactional(readOnly = true)
   public EmployeTache findById(int id)
   {
     try {
@@ -71,6 +72,7 @@ implements IDao<EmployeTache> {
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<EmployeTache> findAll()
   {
     try {
@@ -3,6 +3,7 @@ package ma.projet.service;
 import ma.projet.classes.Projet;
 import ma.projet.classes.Tache;
 import ma.projet.dao.IDao;
+import ma.projet.dto.ProjetTableauDeBordDto;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
@@ -58,6 +59,7 @@ public boolean delete(Projet o) {
 }
 
 @Override
+@Transactional(readOnly = true)
 public Projet findById(int id) {
     try {
         Session session = sessionFactory.getCurrentSession();
@@ -69,6 +71,7 @@ public Projet findById(int id) {
 }
 
 @Override
+@Transactional(readOnly = true)
 public List<Projet> findAll() {
     try {
         Session session = sessionFactory.getCurrentSession();
@@ -82,6 +85,7 @@ public List<Projet> findAll() {
 /**
  * Afficher la liste des tâches planifiées pour un projet
  */
+@Transactional(readOnly = true)
 public List<Tache> findTachesPlanifieesByProjet(int projetId) {
     try {
         Session session = sessionFactory.getCurrentSession();
@@ -98,6 +102,7 @@ public List<Tache> findTachesPlanifieesByProjet(int projetId) {
 /**
  * Afficher la liste des tâches réalisées avec les dates réelles
  */
+@Transactional(readOnly = true)
 public List<Object[]> findTachesRealiseesByProjet(int projetId) {
     try {
         Session session = sessionFactory.getCurrentSession();
@@ -113,4 +118,19 @@ public List<Object[]> findTachesRealiseesByProjet(int projetId) {
         return null;
     }
 }
+
+/**
+ * Tableau de bord de tous les projets : tâches planifiées / réalisées, coûts et dates réelles
+ * Une seule requête groupée (requête native nommée), quel que soit le nombre de projets
+ */
+@Transactional(readOnly = true)
+public List<ProjetTableauDeBordDto> findTableauDeBordProjets() {
+    try {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNamedQuery("findTableauDeBordProjets", ProjetTableauDeBordDto.class).list();
+    } catch (Exception e) {
+        e.printStackTrace();
+        return null;
+    }
+}
 }
\ No newline at end of file
@@ -2,13 +2,19 @@ package ma.projet.service;
 
 import ma.projet.classes.Tache;
 import ma.projet.dao.IDao;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 
@@ -18,6 +24,15 @@ public
 class TacheService implements IDao<Tache>
 {
 
+  /**
+   * Formats d'export des tâches : CSV avec en-tête, ou un objet JSON par ligne (NDJSON)
+   */
+  public enum FormatExport { CSV, NDJSON }
+
+  private static final int FETCH_SIZE = 1000;
+
+  private static final String ENTETE_CSV = "id,nom,dateDebut,dateFin,prix,projetId,projet";
+
   @Autowired
   private SessionFactory sessionFactory;
 
@@ -70,6 +85,7 @@ class TacheService implements IDao<Tache>
   }
 
   @Override
+  @Transactional(readOnly = true)
   public Tache findById(int id)
   {
     try
@@ -85,6 +101,7 @@ class TacheService implements IDao<Tache>
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<Tache> findAll()
   {
     try
@@ -102,6 +119,7 @@ class TacheService implements IDao<Tache>
   /**
    * Afficher les tâches dont le prix est supérieur à 1000 DH (requête nommée)
    */
+  @Transactional(readOnly = true)
   public List<Tache> findTachesPrixSuperieur(double prixMin)
   {
     try
@@ -121,6 +139,7 @@ class TacheService implements IDao<Tache>
   /**
    * Afficher les tâches réalisées entre deux dates
    */
+  @Transactional(readOnly = true)
   public List<Tache> findTachesRealiseesEntreDates(Date dateDebut, Date dateFin)
   {
     try
@@ -141,4 +160,117 @@ class TacheService implements IDao<Tache>
       return null;
     }
   }
+
+  /**
+   * Exporter les tâches dont le prix est supérieur à prixMin, ligne par ligne
+   * Retourne le nombre de tâches écrites, ou -1 en cas d'erreur
+   */
+  @Transactional(readOnly = true)
+  public int exportTachesPrixSuperieur(double prixMin, Writer out, FormatExport format)
+  {
+    Session session = sessionFactory.getCurrentSession();
+    return session.doReturningWork(connection -> {
+      try (StatelessSession stateless = sessionFactory.openStatelessSession(connection))
+      {
+        Query<?> query = stateless.getNamedQuery("scrollTachesPrixSuperieur");
+        query.setParameter("prixMin", prixMin);
+        return export(query, out, format);
+      }
+    });
+  }
+
+  /**
+   * Exporter les tâches réalisées entre deux dates, ligne par ligne
+   * Retourne le nombre de tâches écrites, ou -1 en cas d'erreur
+   */
+  @Transactional(readOnly = true)
+  public int exportTachesRealiseesEntreDates(Date dateDebut, Date dateFin, Writer out, FormatExport format)
+  {
+    Session session = sessionFactory.getCurrentSession();
+    return session.doReturningWork(connection -> {
+      try (StatelessSession stateless = sessionFactory.openStatelessSession(connection))
+      {
+        Query<?> query = stateless.getNamedQuery("scrollTachesRealiseesEntreDates");
+        query.setParameter("dateDebut", dateDebut);
+        query.setParameter("dateFin", dateFin);
+        return export(query, out, format);
+      }
+    });
+  }
+
+  // Curseur en avant seulement sur une session sans état (même connexion que la transaction en cours) :
+  // chaque ligne est écrite puis oubliée, la mémoire utilisée ne dépend pas du nombre de tâches
+  private int export(Query<?> query, Writer out, FormatExport format)
+  {
+    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+    int count = 0;
+    try (ScrollableResults results = query.setFetchSize(FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY))
+    {
+      if (format == FormatExport.CSV)
+      {
+        out.write(ENTETE_CSV);
+        out.write('\n');
+      }
+      while (results.next())
+      {
+        Object[] row = results.get();
+        if (format == FormatExport.CSV)
+        {
+          out.write(row[0] + "," + csv((String) row[1]) + "," + sdf.format((Date) row[2]) + ","
+            + sdf.format((Date) row[3]) + "," + row[4] + "," + row[5] + "," + csv((String) row[6]));
+        }
+        else
+        {
+          out.write("{\"id\":" + row[0] + ",\"nom\":" + json((String) row[1])
+            + ",\"dateDebut\":\"" + sdf.format((Date) row[2]) + "\",\"dateFin\":\"" + sdf.format((Date) row[3])
+            + "\",\"prix\":" + row[4] + ",\"projetId\":" + row[5] + ",\"projet\":" + json((String) row[6]) + "}");
+        }
+        out.write('\n');
+        count++;
+      }
+      out.flush();
+      return count;
+    }
+    catch (IOException e)
+    {
+      e.printStackTrace();
+      return -1;
+    }
+  }
+
+  private static String csv(String value)
+  {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+    {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  private static String json(String value)
+  {
+    StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++)
+    {
+      char c = value.charAt(i);
+      switch (c)
+      {
+        case '"': sb.append("\\\""); break;
+        case '\\': sb.append("\\\\"); break;
+        case '\n': sb.append("\\n"); break;
+        case '\r': sb.append("\\r"); break;
+        case '\t': sb.append("\\t"); break;
+        default:
+          if (c < 0x20)
+          {
+            sb.append(String.format("\\u%04x", (int) c));
+          }
+          else
+          {
+            sb.append(c);
+          }
+      }
+    }
+    return sb.append('"').toString();
+  }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import ma.projet.classes.Employe;
 import ma.projet.classes.EmployeTache;
 import ma.projet.classes.Projet;
 import ma.projet.classes.Tache;
+import ma.projet.dto.EmployeTableauDeBordDto;
+import ma.projet.dto.ProjetTableauDeBordDto;
 import ma.projet.service.EmployeService;
 import ma.projet.service.EmployeTacheService;
 import ma.projet.service.ProjetService;
@@ -11,6 +13,8 @@ import ma.projet.service.TacheService;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -178,6 +182,24 @@ public class TestApplication {
                            ", Prix: " + t.getPrix() + " DH)");
       }
 
+      System.out.println("\n Export CSV des tâches réalisées entre " + sdf.format(dateDebut) + " et " + sdf.format(dateFin) + " ");
+      Writer sortie = new OutputStreamWriter(System.out);
+      int nbExportees = tacheService.exportTachesRealiseesEntreDates(dateDebut, dateFin, sortie, TacheService.FormatExport.CSV);
+      System.out.println(nbExportees + " tâche(s) exportée(s)");
+
+      System.out.println("\n Tableau de bord des projets ");
+      System.out.println("Projet\t\t\tPlanifiées\tCoût planifié\tRéalisées\tCoût réalisé");
+      for (ProjetTableauDeBordDto d : projetService.findTableauDeBordProjets()) {
+        System.out.println(d.getNom() + "\t" + d.getNbTachesPlanifiees() + "\t\t" + d.getCoutPlanifie() + " DH\t" +
+                           d.getNbTachesRealisees() + "\t\t" + d.getCoutRealise() + " DH");
+      }
+
+      System.out.println("\n Tableau de bord des employés ");
+      for (EmployeTableauDeBordDto d : employeService.findTableauDeBordEmployes()) {
+        System.out.println(" - " + d.getNom() + " " + d.getPrenom() + " : " + d.getNbProjetsGeres() + " projet(s) géré(s), " +
+                           d.getNbTachesRealisees() + " tâche(s) réalisée(s) pour " + d.getCoutTachesRealisees() + " DH");
+      }
+
       System.out.println("\n Tous les tests ont été exécutés avec succès! ");
 
     } catch (Exception e) {
@@ -0,0 +1,167 @@
+package ma.projet.service;
+
+import ma.projet.service.TacheService.FormatExport;
+import org.junit.jupiter.api.Test;
+
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports CSV / NDJSON de 1 000 000 tâches (-Dbenchmark.rows=...) vers un Writer qui ne garde rien :
+ * nombre de lignes, lignes bien formées et tas borné
+ * Lancé par l'exécution surefire "export-memoire-bornee" dans une JVM à -Xmx64m ; la base H2 est
+ * sur disque (target/) avec un cache de 8 Mo, pour que le tas mesuré soit celui de l'export
+ * Le tas après GC est relevé toutes les LIGNES_ENTRE_MESURES lignes
+ */
+class ExportTachesTest extends GestionProjetsTestSupport {
+
+    private static final int TACHES = lignes(1_000_000);
+    private static final int TACHES_PAR_PROJET = 5;
+    private static final int EMPLOYES = 1000;
+
+    // Tas après GC au-delà du premier relevé (caches de H2 et de Hibernate déjà remplis) :
+    // ne doit pas croître avec le nombre de lignes exportées
+    private static final long CROISSANCE_MAX_OCTETS = 8L * 1024 * 1024;
+    private static final int LIGNES_ENTRE_MESURES = 100_000;
+
+    private static final String ENTETE_CSV = "id,nom,dateDebut,dateFin,prix,projetId,projet";
+    private static final String CHAMP_CSV = "(?:[^,\"\\n]*|\"(?:[^\"]|\"\")*\")";
+    private static final String DATE = "\\d{4}-\\d{2}-\\d{2}";
+    private static final String CHAINE_JSON = "\"(?:[^\"\\\\\\x00-\\x1f]|\\\\.)*\"";
+    private static final Pattern LIGNE_CSV = Pattern.compile(
+        "\\d+," + CHAMP_CSV + "," + DATE + "," + DATE + ",[0-9.E]+,\\d+," + CHAMP_CSV);
+    private static final Pattern LIGNE_NDJSON = Pattern.compile(
+        "\\{\"id\":\\d+,\"nom\":" + CHAINE_JSON + ",\"dateDebut\":\"" + DATE + "\",\"dateFin\":\"" + DATE
+        + "\",\"prix\":[0-9.E]+,\"projetId\":\\d+,\"projet\":" + CHAINE_JSON + "\\}");
+
+    @Test
+    void exportsCompletsBienFormesEtTasBorne() throws ParseException {
+        ouvrirUrl("jdbc:h2:./target/ex02_export;CACHE_SIZE=8192");
+        int projets = (TACHES + TACHES_PAR_PROJET - 1) / TACHES_PAR_PROJET;
+        insererEmployesEtProjets(EMPLOYES, projets);
+        insererTaches(projets, TACHES_PAR_PROJET);
+        insererAffectations(TACHES, EMPLOYES);
+        // Virgules et guillemets à échapper dans une tâche sur dix
+        jdbc.update("UPDATE tache SET nom = nom || ', \"urgente\"' WHERE MOD(id, 10) = 0");
+        TacheService tacheService = context.getBean(TacheService.class);
+
+        Date debut = new SimpleDateFormat("yyyy-MM-dd").parse("2024-03-01");
+        Date fin = new SimpleDateFormat("yyyy-MM-dd").parse("2024-04-30");
+        int realisees = jdbc.queryForObject("SELECT COUNT(DISTINCT tache_id) FROM employe_tache "
+            + "WHERE dateDebutReelle BETWEEN ? AND ? OR dateFinReelle BETWEEN ? AND ?", Integer.class,
+            debut, fin, debut, fin);
+        int prixSuperieur = jdbc.queryForObject("SELECT COUNT(*) FROM tache WHERE prix > 500", Integer.class);
+        assertTrue(realisees > 0 && prixSuperieur > 0);
+
+        for (FormatExport format : FormatExport.values()) {
+            LignesComptees tout = new LignesComptees(format);
+            long depart = System.nanoTime();
+            assertEquals(TACHES, tacheService.exportTachesPrixSuperieur(0, tout, format));
+            tout.verifier(TACHES, "prix > 0", depart);
+
+            LignesComptees parPrix = new LignesComptees(format);
+            depart = System.nanoTime();
+            assertEquals(prixSuperieur, tacheService.exportTachesPrixSuperieur(500, parPrix, format));
+            parPrix.verifier(prixSuperieur, "prix > 500", depart);
+
+            LignesComptees parDates = new LignesComptees(format);
+            depart = System.nanoTime();
+            assertEquals(realisees, tacheService.exportTachesRealiseesEntreDates(debut, fin, parDates, format));
+            parDates.verifier(realisees, "réalisées mars-avril", depart);
+        }
+    }
+
+    /**
+     * Writer qui valide chaque ligne à sa fin puis l'oublie
+     */
+    private static final class LignesComptees extends Writer {
+
+        private static final MemoryMXBean MEMOIRE = ManagementFactory.getMemoryMXBean();
+
+        private final FormatExport format;
+        private final StringBuilder ligne = new StringBuilder();
+        private long tasReference = -1;
+        private long tasMax = -1;
+        private int lignes;
+        private boolean enteteLue;
+
+        LignesComptees(FormatExport format) {
+            this.format = format;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                ajouter(cbuf[i]);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                ajouter(str.charAt(i));
+            }
+        }
+
+        @Override
+        public void write(int c) {
+            ajouter((char) c);
+        }
+
+        private void ajouter(char c) {
+            if (c != '\n') {
+                ligne.append(c);
+                return;
+            }
+            if (format == FormatExport.CSV && !enteteLue) {
+                assertEquals(ENTETE_CSV, ligne.toString());
+                enteteLue = true;
+            } else {
+                Pattern attendu = format == FormatExport.CSV ? LIGNE_CSV : LIGNE_NDJSON;
+                if (!attendu.matcher(ligne).matches()) {
+                    fail(format + " mal formé, ligne " + (lignes + 1) + " : " + ligne);
+                }
+                if (++lignes % LIGNES_ENTRE_MESURES == 0) {
+                    long tas = tasApresGc();
+                    if (tasReference < 0) {
+                        tasReference = tas;
+                    }
+                    tasMax = Math.max(tasMax, tas);
+                }
+            }
+            ligne.setLength(0);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void verifier(int attendues, String export, long depart) {
+            long croissance = tasMax - tasReference;
+            System.out.printf("%s %s : %d lignes en %.1f s, tas après GC %d Ko puis +%d Ko (-Xmx %d Ko)%n", format,
+                export, lignes, (System.nanoTime() - depart) / 1e9, tasReference / 1024, croissance / 1024,
+                MEMOIRE.getHeapMemoryUsage().getMax() / 1024);
+            assertEquals(0, ligne.length(), "Dernière ligne non terminée");
+            assertEquals(format == FormatExport.CSV, enteteLue);
+            assertEquals(attendues, lignes);
+            assertTrue(croissance < CROISSANCE_MAX_OCTETS,
+                format + " " + export + " : le tas a augmenté de " + croissance / 1024 + " Ko pendant l'export");
+        }
+
+        private static long tasApresGc() {
+            System.gc();
+            return MEMOIRE.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ma.projet.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Contexte Spring du profil par défaut sur une base H2, données synthétiques insérées en SQL
+ * Les volumes sont réduits par défaut ; mesure complète avec -Dbenchmark.rows=...
+ */
+abstract class GestionProjetsTestSupport {
+
+    protected ClassPathXmlApplicationContext context;
+    protected JdbcTemplate jdbc;
+    protected SessionFactory sessionFactory;
+
+    protected static int lignes(int parDefaut) {
+        return Integer.getInteger("benchmark.rows", parDefaut);
+    }
+
+    protected void ouvrir(String base) {
+        ouvrirUrl("jdbc:h2:mem:" + base + ";DB_CLOSE_DELAY=-1");
+    }
+
+    protected void ouvrirUrl(String url) {
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.url", url);
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("hibernate.hbm2ddl.auto", "create");
+        System.setProperty("hibernate.show_sql", "false");
+        context = new ClassPathXmlApplicationContext("applicationContext.xml");
+        jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        sessionFactory = context.getBean(SessionFactory.class);
+    }
+
+    @AfterEach
+    void fermer() {
+        if (context != null) {
+            jdbc.execute("DROP ALL OBJECTS");
+            context.close();
+        }
+    }
+
+    /**
+     * Employés 1..employes ; le projet p (1..projets) est géré par l'employé 1 + p % employes
+     */
+    protected void insererEmployesEtProjets(int employes, int projets) {
+        jdbc.update("INSERT INTO employe (id, nom, prenom, telephone) "
+            + "SELECT x, 'NOM' || x, 'PRENOM' || x, '06' || x FROM SYSTEM_RANGE(1, ?)", employes);
+        jdbc.update("INSERT INTO projet (id, nom, dateDebut, dateFin, chef_projet_id) "
+            + "SELECT x, 'Projet ' || x, DATE '2024-01-01', DATE '2024-12-31', 1 + MOD(x, ?) "
+            + "FROM SYSTEM_RANGE(1, ?)", employes, projets);
+    }
+
+    /**
+     * tachesParProjet tâches par projet, d'identifiants 1..projets * tachesParProjet,
+     * au prix de 100 + (t % 50) * 10, débutées entre janvier et juin 2024
+     */
+    protected void insererTaches(int projets, int tachesParProjet) {
+        jdbc.update("INSERT INTO tache (id, nom, dateDebut, dateFin, prix, projet_id) "
+            + "SELECT x, 'Tache ' || x, DATEADD('DAY', MOD(x, 180), DATE '2024-01-01'), "
+            + "DATEADD('DAY', MOD(x, 180) + 30, DATE '2024-01-01'), 100 + MOD(x, 50) * 10, "
+            + "1 + (x - 1) / ? FROM SYSTEM_RANGE(1, ?)", tachesParProjet, projets * tachesParProjet);
+    }
+
+    /**
+     * Affectations réalisées des tâches 1..taches : une tâche sur trois (t % 3 == 0) n'est pas réalisée ;
+     * la tâche t est réalisée par l'employé 1 + t % employes, et aussi par le suivant si t % 4 == 0 ;
+     * si t % 7 == 0, son premier employé y a une seconde affectation, plus tardive
+     */
+    protected void insererAffectations(int taches, int employes) {
+        jdbc.update("INSERT INTO employe_tache (id, employe_id, tache_id, dateDebutReelle, dateFinReelle) "
+            + "SELECT t.x * 3 + k.x, 1 + MOD(t.x + CASE WHEN k.x = 1 THEN 1 ELSE 0 END, ?), t.x, "
+            + "DATEADD('DAY', MOD(t.x, 180) + k.x * 40, DATE '2024-01-01'), "
+            + "DATEADD('DAY', MOD(t.x, 180) + k.x * 40 + 20, DATE '2024-01-01') "
+            + "FROM SYSTEM_RANGE(1, ?) t, SYSTEM_RANGE(0, 2) k "
+            + "WHERE MOD(t.x, 3) <> 0 AND (k.x = 0 OR (k.x = 1 AND MOD(t.x, 4) = 0) OR (k.x = 2 AND MOD(t.x, 7) = 0))",
+            employes, taches);
+    }
+
+    protected Statistics statistiques() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+}
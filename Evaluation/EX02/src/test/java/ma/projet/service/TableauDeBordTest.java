@@ -0,0 +1,156 @@
+package ma.projet.service;
+
+import ma.projet.classes.EmployeTache;
+import ma.projet.classes.Tache;
+import ma.projet.dto.EmployeTableauDeBordDto;
+import ma.projet.dto.ProjetTableauDeBordDto;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tableaux de bord des projets et des employés : une requête groupée, quel que soit le nombre de lignes,
+ * et les mêmes chiffres que les méthodes par projet / par employé
+ * Mesure complète : -Dbenchmark.rows=20000 (projets de 5 tâches, un employé pour 4 projets)
+ */
+class TableauDeBordTest extends GestionProjetsTestSupport {
+
+    private static final int TACHES_PAR_PROJET = 5;
+
+    @Test
+    void nombreDeRequetesIndependantDuNombreDeProjets() {
+        ouvrir("ex02_tableau_requetes");
+        ProjetService projetService = context.getBean(ProjetService.class);
+        EmployeService employeService = context.getBean(EmployeService.class);
+        int projets = lignes(2000);
+        int employes = Math.max(1, projets / 4);
+
+        long[] requetesProjets = new long[2];
+        long[] requetesEmployes = new long[2];
+        int[] volumes = {20, projets};
+        for (int i = 0; i < volumes.length; i++) {
+            jdbc.execute("DELETE FROM employe_tache");
+            jdbc.execute("DELETE FROM tache");
+            jdbc.execute("DELETE FROM projet");
+            jdbc.execute("DELETE FROM employe");
+            inserer(volumes[i], Math.max(1, volumes[i] / 4));
+
+            Statistics statistics = statistiques();
+            assertEquals(volumes[i], projetService.findTableauDeBordProjets().size());
+            requetesProjets[i] = statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            assertEquals(Math.max(1, volumes[i] / 4), employeService.findTableauDeBordEmployes().size());
+            requetesEmployes[i] = statistics.getPrepareStatementCount();
+        }
+
+        // Avant : une requête par projet (tâches planifiées et réalisées) ou par employé
+        Statistics statistics = statistiques();
+        long debut = System.nanoTime();
+        for (int id = 1; id <= projets; id++) {
+            projetService.findTachesPlanifieesByProjet(id);
+            projetService.findTachesRealiseesByProjet(id);
+        }
+        double parProjetMillis = (System.nanoTime() - debut) / 1e6;
+        long parProjetRequetes = statistics.getPrepareStatementCount();
+        debut = System.nanoTime();
+        projetService.findTableauDeBordProjets();
+        double tableauMillis = (System.nanoTime() - debut) / 1e6;
+
+        System.out.printf("%d projets, %d employés : par projet = %d requêtes / %.0f ms, tableau de bord = %d requête(s) / %.0f ms%n",
+            projets, employes, parProjetRequetes, parProjetMillis, requetesProjets[1], tableauMillis);
+
+        for (int i = 0; i < volumes.length; i++) {
+            assertTrue(requetesProjets[i] <= 2, "projets : " + requetesProjets[i] + " requêtes");
+            assertTrue(requetesEmployes[i] <= 2, "employés : " + requetesEmployes[i] + " requêtes");
+        }
+        assertEquals(requetesProjets[0], requetesProjets[1]);
+        assertEquals(requetesEmployes[0], requetesEmployes[1]);
+    }
+
+    @Test
+    void tableauDeBordProjetsIdentiqueAuxMethodesParProjet() {
+        ouvrir("ex02_tableau_projets");
+        inserer(40, 10);
+        ProjetService projetService = context.getBean(ProjetService.class);
+
+        List<ProjetTableauDeBordDto> tableau = projetService.findTableauDeBordProjets();
+        assertEquals(40, tableau.size());
+
+        for (ProjetTableauDeBordDto ligne : tableau) {
+            List<Tache> planifiees = projetService.findTachesPlanifieesByProjet(ligne.getProjetId());
+            Map<Integer, Double> prix = new HashMap<>();
+            for (Tache tache : planifiees) {
+                prix.put(tache.getId(), tache.getPrix());
+            }
+            // Une ligne par affectation : une tâche réalisée par plusieurs employés y figure plusieurs fois
+            List<Object[]> realisees = projetService.findTachesRealiseesByProjet(ligne.getProjetId());
+            List<Integer> tachesRealisees = realisees.stream().map(r -> (Integer) r[0]).distinct().collect(Collectors.toList());
+
+            assertEquals(planifiees.size(), ligne.getNbTachesPlanifiees(), ligne.toString());
+            assertEquals(prix.values().stream().mapToDouble(Double::doubleValue).sum(), ligne.getCoutPlanifie(), 1e-6);
+            assertEquals(tachesRealisees.size(), ligne.getNbTachesRealisees(), ligne.toString());
+            assertEquals(tachesRealisees.stream().mapToDouble(prix::get).sum(), ligne.getCoutRealise(), 1e-6);
+            assertEquals(realisees.stream().map(r -> (Date) r[2]).min(Date::compareTo).orElse(null), ligne.getDateDebutReelle());
+            assertEquals(realisees.stream().map(r -> (Date) r[3]).max(Date::compareTo).orElse(null), ligne.getDateFinReelle());
+        }
+
+        // Projet 1 : tâches 1..5, la 3 n'est pas réalisée, la 4 l'est par deux employés
+        ProjetTableauDeBordDto projet1 = tableau.get(0);
+        assertEquals(5, projetService.findTachesRealiseesByProjet(1).size());
+        assertEquals(4, projet1.getNbTachesRealisees());
+        assertEquals(110 + 120 + 140 + 150, projet1.getCoutRealise(), 1e-6);
+    }
+
+    @Test
+    void tableauDeBordEmployesIdentiqueAuxMethodesParEmploye() {
+        ouvrir("ex02_tableau_employes");
+        inserer(40, 10);
+        EmployeService employeService = context.getBean(EmployeService.class);
+        List<EmployeTache> affectations = context.getBean(EmployeTacheService.class).findAll();
+
+        List<EmployeTableauDeBordDto> tableau = employeService.findTableauDeBordEmployes();
+        assertEquals(10, tableau.size());
+
+        for (EmployeTableauDeBordDto ligne : tableau) {
+            // Une ligne par affectation : une tâche reprise par le même employé y figure deux fois
+            List<Tache> tachesRealisees = employeService.findTachesRealiseesByEmploye(ligne.getEmployeId());
+            Map<Integer, Double> prix = new HashMap<>();
+            for (Tache tache : tachesRealisees) {
+                prix.put(tache.getId(), tache.getPrix());
+            }
+            List<EmployeTache> siennes = affectations.stream()
+                .filter(et -> et.getEmploye().getId() == ligne.getEmployeId())
+                .collect(Collectors.toList());
+
+            assertEquals(employeService.findProjetsGeresByEmploye(ligne.getEmployeId()).size(),
+                ligne.getNbProjetsGeres(), ligne.toString());
+            assertEquals(prix.size(), ligne.getNbTachesRealisees(), ligne.toString());
+            assertEquals(prix.values().stream().mapToDouble(Double::doubleValue).sum(), ligne.getCoutTachesRealisees(), 1e-6);
+            assertEquals(siennes.stream().map(EmployeTache::getDateDebutReelle).min(Date::compareTo).orElse(null),
+                ligne.getDateDebutReelle());
+            assertEquals(siennes.stream().map(EmployeTache::getDateFinReelle).max(Date::compareTo).orElse(null),
+                ligne.getDateFinReelle());
+        }
+
+        // Tâche 28 : réalisée par l'employé 9 et par le 10 (28 % 4 == 0), reprise par le 9 (28 % 7 == 0)
+        assertEquals(2, affectations.stream()
+            .filter(et -> et.getTache().getId() == 28 && et.getEmploye().getId() == 9).count());
+        assertEquals(1, affectations.stream()
+            .filter(et -> et.getTache().getId() == 28 && et.getEmploye().getId() == 10).count());
+        assertEquals(2, employeService.findTachesRealiseesByEmploye(9).stream().filter(t -> t.getId() == 28).count());
+    }
+
+    private void inserer(int projets, int employes) {
+        insererEmployesEtProjets(employes, projets);
+        insererTaches(projets, TACHES_PAR_PROJET);
+        insererAffectations(projets * TACHES_PAR_PROJET, employes);
+    }
+}
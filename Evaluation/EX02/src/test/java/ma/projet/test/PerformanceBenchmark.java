@@ -0,0 +1,116 @@
+package ma.projet.test;
+
+import ma.projet.classes.Employe;
+import ma.projet.classes.Projet;
+import ma.projet.classes.Tache;
+import ma.projet.service.EmployeService;
+import ma.projet.service.ProjetService;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compare le profil par défaut et le profil "performance" de applicationContext.xml contre H2
+// Usage : mvn test-compile exec:java -Dexec.mainClass=ma.projet.test.PerformanceBenchmark -Dexec.classpathScope=test [-Dexec.args=<nombre d'opérations>]
+// Ajouter -Dbenchmark.url=jdbc:h2:tcp://localhost/mem: pour un serveur H2
+public class PerformanceBenchmark {
+
+  private static final String[] PROFILS = {"default", "performance"};
+
+  // étape -> durée en ms pour chaque profil, dans l'ordre de PROFILS
+  private static final Map<String, long[]> RESULTATS = new LinkedHashMap<>();
+
+  private interface Etape {
+    void executer() throws Exception;
+  }
+
+  public static void main(String[] args) throws Exception
+  {
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+    // Les propriétés système priment sur application.properties
+    System.setProperty("db.driver", "org.h2.Driver");
+    System.setProperty("db.username", "sa");
+    System.setProperty("db.password", "");
+    System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+    System.setProperty("hibernate.hbm2ddl.auto", "create");
+
+    for (int p = 0; p < PROFILS.length; p++) {
+      System.setProperty("spring.profiles.active", PROFILS[p]);
+      System.setProperty("db.url", System.getProperty("benchmark.url", "jdbc:h2:mem:")
+                                   + "ex02_" + PROFILS[p] + ";DB_CLOSE_DELAY=-1");
+      try (ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("applicationContext.xml")) {
+        executer(context, p, n);
+      }
+    }
+
+    System.out.println();
+    System.out.printf("%-32s %12s %12s %8s%n", "Étape", "défaut (ms)", "perf. (ms)", "gain");
+    for (Map.Entry<String, long[]> e : RESULTATS.entrySet()) {
+      long[] ms = e.getValue();
+      System.out.printf("%-32s %12d %12d %7.1fx%n", e.getKey(), ms[0], ms[1], (double) ms[0] / Math.max(ms[1], 1));
+    }
+  }
+
+  private static void mesurer(String etape, int profil, Etape e) throws Exception
+  {
+    long debut = System.nanoTime();
+    e.executer();
+    RESULTATS.computeIfAbsent(etape, k -> new long[PROFILS.length])[profil] = (System.nanoTime() - debut) / 1_000_000;
+  }
+
+  // Même enchaînement que TestApplication, à plus grande échelle : une transaction par appel de service
+  private static void executer(ClassPathXmlApplicationContext context, int p, int n) throws Exception
+  {
+    EmployeService employeService = context.getBean(EmployeService.class);
+    ProjetService projetService = context.getBean(ProjetService.class);
+
+    List<Employe> employes = new ArrayList<>();
+    List<Projet> projets = new ArrayList<>();
+
+    mesurer("create employe x" + n, p, () -> {
+      for (int i = 0; i < n; i++) {
+        Employe employe = new Employe("Nom" + i, "Prenom" + i, "0600000000");
+        employeService.create(employe);
+        employes.add(employe);
+      }
+    });
+    mesurer("create projet + 5 taches x" + n / 10, p, () -> {
+      for (int i = 0; i < n / 10; i++) {
+        Projet projet = new Projet("Projet " + i, new Date(), new Date(), employes.get(i));
+        List<Tache> taches = new ArrayList<>();
+        for (int t = 0; t < 5; t++) {
+          taches.add(new Tache("Tache " + t, new Date(), new Date(), 500 * (t + 1), projet));
+        }
+        projet.setTaches(taches);
+        projetService.create(projet);
+        projets.add(projet);
+      }
+    });
+    mesurer("findById employe x" + n, p, () -> {
+      for (Employe employe : employes) {
+        employeService.findById(employe.getId());
+      }
+    });
+    mesurer("update employe x" + n, p, () -> {
+      for (Employe employe : employes) {
+        employe.setTelephone("0700000000");
+        employeService.update(employe);
+      }
+    });
+    mesurer("taches par projet x" + n / 10, p, () -> {
+      for (Projet projet : projets) {
+        projetService.findTachesPlanifieesByProjet(projet.getId());
+      }
+    });
+    mesurer("tableaux de bord x100", p, () -> {
+      for (int i = 0; i < 100; i++) {
+        projetService.findTableauDeBordProjets();
+        employeService.findTableauDeBordEmployes();
+      }
+    });
+  }
+}
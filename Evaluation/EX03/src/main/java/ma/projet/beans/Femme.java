@@ -10,6 +10,10 @@ import java.util.List;
     @NamedQuery(
         name = "findFemmesMarieesPlusieursfois",
         query = "SELECT f FROM Femme f WHERE (SELECT COUNT(m) FROM Mariage m WHERE m.femme = f) >= 2"
+    ),
+    @NamedQuery(
+        name = "findFemmesNeesLe",
+        query = "SELECT f FROM Femme f WHERE f.dateNaissance = :dateNaissance ORDER BY f.id"
     )
 })
 @NamedNativeQueries({
@@ -17,8 +21,15 @@ import java.util.List;
         name = "countEnfantsFemmeEntreDates",
         query = "SELECT SUM(m.nbrEnfant) FROM mariage m " 
              + "JOIN femme f ON m.femme_id = f.id " 
-             + "WHERE f.id = :femmeId AND m.dateDebut BETWEEN :dateDebut AND :dateFin",
-        resultClass = Long.class
+             + "WHERE f.id = :femmeId AND m.dateDebut BETWEEN :dateDebut AND :dateFin"
+    ),
+    // EXISTS plutôt qu'une jointure : l'optimiseur ne peut pas partir de femme, le parcours de
+    // idx_personne_date_naissance dans l'ordre s'arrête à la première femme
+    @NamedNativeQuery(
+        name = "findDateNaissanceLaPlusAncienne",
+        query = "SELECT p.dateNaissance FROM personne p "
+             + "WHERE EXISTS (SELECT 1 FROM femme f WHERE f.id = p.id) "
+             + "ORDER BY p.dateNaissance"
     )
 })
 public 
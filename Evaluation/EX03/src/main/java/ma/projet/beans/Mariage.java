@@ -3,8 +3,10 @@ package ma.projet.beans;
 import javax.persistence.*;
 import java.util.Date;
 
+// Index couvrant de countHommesMarieA4FemmesEntreDates sur la base cible (MySQL / InnoDB) :
+// plage sur dateDebut puis homme_id lus dans l'index, sans accès aux lignes de la table
 @Entity
-@Table(name = "mariage")
+@Table(name = "mariage", indexes = @Index(name = "idx_mariage_date_debut_homme", columnList = "dateDebut, homme_id"))
 public 
 class Mariage {
     
@@ -5,7 +5,7 @@ import java.util.Date;
 
 @Entity
 @Inheritance(strategy = InheritanceType.JOINED)
-@Table(name = "personne")
+@Table(name = "personne", indexes = @Index(name = "idx_personne_date_naissance", columnList = "dateNaissance"))
 public class Personne
 {
     
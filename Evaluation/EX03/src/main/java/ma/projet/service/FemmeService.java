@@ -10,9 +10,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -60,6 +64,7 @@ class FemmeService implements IDao<Femme>
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Femme findById(int id) {
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -71,6 +76,7 @@ class FemmeService implements IDao<Femme>
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Femme> findAll() {
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -82,35 +88,61 @@ class FemmeService implements IDao<Femme>
     }
 
     /**
-     * Trouver la femme la plus âgée
+     * Trouver la femme la plus âgée (calcul côté base, index sur dateNaissance)
+     * En cas d'égalité, la femme de plus petit identifiant est retenue
      */
+    @Transactional(readOnly = true)
     public Femme findFemmeLaPlusAgee() {
         try {
-            List<Femme> femmes = findAll();
-            if (femmes == null || femmes.isEmpty()) {
-                return null;
-            }
-            return femmes.stream()
-                .min(Comparator.comparing(Femme::getDateNaissance))
-                .orElse(null);
+            List<Femme> femmes = findFemmesNeesLePlusTot(1);
+            return femmes.isEmpty() ? null : femmes.get(0);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Trouver toutes les femmes partageant la date de naissance la plus ancienne
+     */
+    @Transactional(readOnly = true)
+    public List<Femme> findFemmesLesPlusAgees() {
+        try {
+            return findFemmesNeesLePlusTot(Integer.MAX_VALUE);
         } catch (Exception e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    // Deux lectures indexées : la date la plus ancienne (parcours trié arrêté à la première ligne), puis les femmes nées ce jour-là
+    private List<Femme> findFemmesNeesLePlusTot(int max) {
+        Session session = sessionFactory.getCurrentSession();
+        Date dateNaissance = (Date) session.getNamedNativeQuery("findDateNaissanceLaPlusAncienne")
+            .setMaxResults(1)
+            .uniqueResult();
+        if (dateNaissance == null) {
+            return Collections.emptyList();
+        }
+        return session.createNamedQuery("findFemmesNeesLe", Femme.class)
+            .setParameter("dateNaissance", dateNaissance)
+            .setMaxResults(max)
+            .list();
+    }
+
     /**
      * Compter le nombre d'enfants d'une femme entre deux dates (requête native nommée)
      */
+    @Transactional(readOnly = true)
     public int countEnfantsFemmeEntreDates(int femmeId, Date dateDebut, Date dateFin) {
         try {
             Session session = sessionFactory.getCurrentSession();
-            NativeQuery<Long> query = session.createNamedQuery("countEnfantsFemmeEntreDates", Long.class);
+            NativeQuery<?> query = session.getNamedNativeQuery("countEnfantsFemmeEntreDates");
             query.setParameter("femmeId", femmeId);
             query.setParameter("dateDebut", dateDebut);
             query.setParameter("dateFin", dateFin);
             
-            Long result = query.uniqueResult();
+            Number result = (Number) query.uniqueResult();
             return result != null ? result.intValue() : 0;
         } catch (Exception e) {
             e.printStackTrace();
@@ -121,6 +153,7 @@ class FemmeService implements IDao<Femme>
     /**
      * Afficher les femmes mariées au moins deux fois (requête nommée)
      */
+    @Transactional(readOnly = true)
     public List<Femme> findFemmesMarieesAuMoinsDeuxFois() {
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -131,4 +164,63 @@ class FemmeService implements IDao<Femme>
             return null;
         }
     }
+
+    /**
+     * Compter le nombre d'enfants de plusieurs femmes entre deux dates
+     * Une requête groupée par lot de 1000 identifiants ; 0 pour les femmes sans mariage sur la période
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Integer> countEnfantsFemmesEntreDates(Collection<Integer> femmeIds, Date dateDebut, Date dateFin) {
+        try {
+            Session session = sessionFactory.getCurrentSession();
+            Map<Integer, Integer> enfants = new HashMap<>();
+            for (List<Integer> lot : Lots.decouper(femmeIds)) {
+                List<Object[]> rows = session.createQuery(
+                    "SELECT m.femme.id, SUM(m.nbrEnfant) FROM Mariage m "
+                    + "WHERE m.femme.id IN (:femmeIds) "
+                    + "AND m.dateDebut BETWEEN :dateDebut AND :dateFin "
+                    + "GROUP BY m.femme.id", Object[].class)
+                    .setParameterList("femmeIds", lot)
+                    .setParameter("dateDebut", dateDebut)
+                    .setParameter("dateFin", dateFin)
+                    .list();
+                for (Object[] row : rows) {
+                    enfants.put((Integer) row[0], ((Number) row[1]).intValue());
+                }
+            }
+            for (Integer femmeId : femmeIds) {
+                enfants.putIfAbsent(femmeId, 0);
+            }
+            return enfants;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Parmi plusieurs femmes, afficher celles mariées au moins deux fois
+     * Une requête groupée par lot de 1000 identifiants
+     */
+    @Transactional(readOnly = true)
+    public List<Femme> findFemmesMarieesAuMoinsDeuxFois(Collection<Integer> femmeIds) {
+        try {
+            Session session = sessionFactory.getCurrentSession();
+            List<Femme> femmes = new ArrayList<>();
+            for (List<Integer> lot : Lots.decouper(femmeIds)) {
+                femmes.addAll(session.createQuery(
+                    "SELECT f FROM Femme f WHERE f.id IN ("
+                    + "SELECT m.femme.id FROM Mariage m "
+                    + "WHERE m.femme.id IN (:femmeIds) "
+                    + "GROUP BY m.femme.id "
+                    + "HAVING COUNT(m) >= 2)", Femme.class)
+                    .setParameterList("femmeIds", lot)
+                    .list());
+            }
+            return femmes;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
\ No newline at end of file
@@ -11,11 +11,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.TemporalType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -63,6 +68,7 @@ class HommeService implements IDao<Homme>
   }
 
   @Override
+  @Transactional(readOnly = true)
   public Homme findById(int id) {
     try {
       Session session = sessionFactory.getCurrentSession();
@@ -74,6 +80,7 @@ class HommeService implements IDao<Homme>
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<Homme> findAll() {
     try {
       Session session = sessionFactory.getCurrentSession();
@@ -88,6 +95,7 @@ class HommeService implements IDao<Homme>
   /**
    * Afficher les épouses d'un homme entre deux dates
    */
+  @Transactional(readOnly = true)
   public List<Femme> findEpousesEntreDeuxDates(int hommeId, Date dateDebut, Date dateFin) {
     try {
       Session session = sessionFactory.getCurrentSession();
@@ -105,25 +113,60 @@ class HommeService implements IDao<Homme>
     }
   }
 
+  //--
+  /**
+   * Afficher les épouses de plusieurs hommes entre deux dates
+   * Une requête par lot de 1000 identifiants ; liste vide pour les hommes sans mariage sur la période
+   */
+  @Transactional(readOnly = true)
+  public Map<Integer, List<Femme>> findEpousesEntreDeuxDates(Collection<Integer> hommeIds, Date dateDebut, Date dateFin) {
+    try {
+      Session session = sessionFactory.getCurrentSession();
+      Map<Integer, List<Femme>> epouses = new HashMap<>();
+      for (Integer hommeId : hommeIds) {
+        epouses.put(hommeId, new ArrayList<>());
+      }
+      for (List<Integer> lot : Lots.decouper(hommeIds)) {
+        List<Object[]> rows = session.createQuery(
+          "SELECT m.homme.id, f FROM Mariage m JOIN m.femme f "
+          + "WHERE m.homme.id IN (:hommeIds) "
+          + "AND m.dateDebut BETWEEN :dateDebut AND :dateFin", Object[].class)
+          .setParameterList("hommeIds", lot)
+          .setParameter("dateDebut", dateDebut)
+          .setParameter("dateFin", dateFin)
+          .list();
+        for (Object[] row : rows) {
+          epouses.get((Integer) row[0]).add((Femme) row[1]);
+        }
+      }
+      return epouses;
+    } catch (Exception e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
   //--
   /**
    * Afficher le nombre d'hommes mariés à quatre femmes entre deux dates (Criteria API)
    */
+  @Transactional(readOnly = true)
   public int countHommesMarieA4FemmesEntreDates(Date dateDebut, Date dateFin) {
     try {
       Session session = sessionFactory.getCurrentSession();
       
-      // Utilisation de HQL car Criteria API est complexe pour ce cas
-      Query<Long> query = session.createQuery(
-        "SELECT COUNT(DISTINCT m.homme) FROM Mariage m " 
-        + "WHERE m.dateDebut BETWEEN :dateDebut AND :dateFin " 
-        + "GROUP BY m.homme " 
-        + "HAVING COUNT(m.femme) = 4", Long.class);
-      query.setParameter("dateDebut", dateDebut);
-      query.setParameter("dateFin", dateFin);
-      
-      List<Long> results = query.list();
-      return results.size();
+      // Comptage par la base sur une table dérivée (HQL n'accepte pas de sous-requête dans FROM) :
+      // une seule valeur remonte au lieu d'une ligne par homme ; l'index (dateDebut, homme_id) couvre la requête
+      Number result = (Number) session.createNativeQuery(
+        "SELECT COUNT(*) FROM ("
+        + "SELECT m.homme_id FROM mariage m "
+        + "WHERE m.dateDebut BETWEEN :dateDebut AND :dateFin "
+        + "GROUP BY m.homme_id "
+        + "HAVING COUNT(*) = 4) h")
+        .setParameter("dateDebut", dateDebut, TemporalType.DATE)
+        .setParameter("dateFin", dateFin, TemporalType.DATE)
+        .uniqueResult();
+      return result != null ? result.intValue() : 0;
     } catch (Exception e) {
       e.printStackTrace();
       return 0;
@@ -134,6 +177,7 @@ class HommeService implements IDao<Homme>
   /**
    * Afficher les mariages d'un homme donné avec tous les détails
    */
+  @Transactional(readOnly = true)
   public List<Mariage> findMariagesByHomme(int hommeId) {
     try {
       Session session = sessionFactory.getCurrentSession();
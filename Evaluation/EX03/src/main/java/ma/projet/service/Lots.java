@@ -0,0 +1,25 @@
+package ma.projet.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Découpe une liste d'identifiants en lots pour les clauses IN des requêtes groupées
+ */
+final class Lots {
+
+    static final int TAILLE = 1000;
+
+    private Lots() {
+    }
+
+    static <T> List<List<T>> decouper(Collection<T> elements) {
+        List<T> liste = new ArrayList<>(elements);
+        List<List<T>> lots = new ArrayList<>();
+        for (int i = 0; i < liste.size(); i += TAILLE) {
+            lots.add(liste.subList(i, Math.min(i + TAILLE, liste.size())));
+        }
+        return lots;
+    }
+}
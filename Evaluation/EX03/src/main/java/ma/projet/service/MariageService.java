@@ -57,6 +57,7 @@ implements IDao<Mariage>
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Mariage findById(int id) {
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -68,6 +69,7 @@ implements IDao<Mariage>
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Mariage> findAll() {
         try {
             Session session = sessionFactory.getCurrentSession();
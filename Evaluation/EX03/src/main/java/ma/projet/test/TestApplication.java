@@ -27,16 +27,16 @@ public class TestApplication {
         try {
             SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
 
-            Femme spouse1 = new Femme("EL BACHIRI", "HIND", "0610101010", "Casablanca", sdf.parse("15/05/1970"));
-            Femme spouse2 = new Femme("TALIBI", "MERYEM", "0620202020", "Rabat", sdf.parse("20/08/1975"));
-            Femme spouse3 = new Femme("KASSIMI", "HABIBA", "0630303030", "Fes", sdf.parse("10/03/1978"));
-            Femme spouse4 = new Femme("SEFRI", "JALILA", "0640404040", "Marrakech", sdf.parse("25/12/1968"));
-            Femme spouse5 = new Femme("MOUNIB", "SARAH", "0650505050", "Tanger", sdf.parse("30/07/1980"));
-            Femme spouse6 = new Femme("HADDAD", "MALIKA", "0660606060", "Agadir", sdf.parse("18/11/1972"));
-            Femme spouse7 = new Femme("MANSOURI", "ZOHRA", "0670707070", "Kenitra", sdf.parse("05/02/1985"));
-            Femme spouse8 = new Femme("AZZOUZI", "GHIZLANE", "0680808080", "Meknes", sdf.parse("22/09/1976"));
-            Femme spouse9 = new Femme("MEHDI", "HASNAA", "0690909090", "Oujda", sdf.parse("14/04/1982"));
-            Femme spouse10 = new Femme("RIZKI", "SANAE", "0601010101", "Tetouan", sdf.parse("08/06/1979"));
+            Femme f1 = new Femme("EL BACHIRI", "HIND", "0610101010", "Casablanca", sdf.parse("15/05/1970"));
+            Femme f2 = new Femme("TALIBI", "MERYEM", "0620202020", "Rabat", sdf.parse("20/08/1975"));
+            Femme f3 = new Femme("KASSIMI", "HABIBA", "0630303030", "Fes", sdf.parse("10/03/1978"));
+            Femme f4 = new Femme("SEFRI", "JALILA", "0640404040", "Marrakech", sdf.parse("25/12/1968"));
+            Femme f5 = new Femme("MOUNIB", "SARAH", "0650505050", "Tanger", sdf.parse("30/07/1980"));
+            Femme f6 = new Femme("HADDAD", "MALIKA", "0660606060", "Agadir", sdf.parse("18/11/1972"));
+            Femme f7 = new Femme("MANSOURI", "ZOHRA", "0670707070", "Kenitra", sdf.parse("05/02/1985"));
+            Femme f8 = new Femme("AZZOUZI", "GHIZLANE", "0680808080", "Meknes", sdf.parse("22/09/1976"));
+            Femme f9 = new Femme("MEHDI", "HASNAA", "0690909090", "Oujda", sdf.parse("14/04/1982"));
+            Femme f10 = new Femme("RIZKI", "SANAE", "0601010101", "Tetouan", sdf.parse("08/06/1979"));
 
             femmeService.create(f1);
             femmeService.create(f2);
@@ -50,11 +50,11 @@ public class TestApplication {
             femmeService.create(f10);
             System.out.println("10 femmes créées avec succès!");
 
-           Homme partner1 = new Homme("FASSI", "ADNANE", "0798765432", "Casablanca", sdf.parse("12/01/1965"));
-            Homme partner2 = new Homme("CHAFIK", "REDOUANE", "0787654321", "Rabat", sdf.parse("28/03/1970"));
-            Homme partner3 = new Homme("MEZIANE", "AMINE", "0776543210", "Fes", sdf.parse("17/07/1968"));
-            Homme partner4 = new Homme("GUEZZAR", "YASSINE", "0765432109", "Marrakech", sdf.parse("03/11/1975"));
-            Homme partner5 = new Homme("BOUZIDI", "TARIQ", "0754321098", "Tanger", sdf.parse("21/09/1972"));
+           Homme h1 = new Homme("FASSI", "ADNANE", "0798765432", "Casablanca", sdf.parse("12/01/1965"));
+            Homme h2 = new Homme("CHAFIK", "REDOUANE", "0787654321", "Rabat", sdf.parse("28/03/1970"));
+            Homme h3 = new Homme("MEZIANE", "AMINE", "0776543210", "Fes", sdf.parse("17/07/1968"));
+            Homme h4 = new Homme("GUEZZAR", "YASSINE", "0765432109", "Marrakech", sdf.parse("03/11/1975"));
+            Homme h5 = new Homme("BOUZIDI", "TARIQ", "0754321098", "Tanger", sdf.parse("21/09/1972"));
 
             hommeService.create(h1);
             hommeService.create(h2);
@@ -63,21 +63,21 @@ public class TestApplication {
             hommeService.create(h5);
             System.out.println("5 hommes créés avec succès!");
 
-          Mariage union_A = new Mariage(sdf.parse("03/09/1989"), sdf.parse("03/09/1990"), 0, h1, f4);
-            Mariage union_B = new Mariage(sdf.parse("03/09/1990"), null, 4, h1, f1);
-            Mariage union_C = new Mariage(sdf.parse("03/09/1995"), null, 2, h1, f2);
-            Mariage union_D = new Mariage(sdf.parse("04/11/2000"), null, 3, h1, f3);
+          Mariage m1 = new Mariage(sdf.parse("03/09/1989"), sdf.parse("03/09/1990"), 0, h1, f4);
+            Mariage m2 = new Mariage(sdf.parse("03/09/1990"), null, 4, h1, f1);
+            Mariage m3 = new Mariage(sdf.parse("03/09/1995"), null, 2, h1, f2);
+            Mariage m4 = new Mariage(sdf.parse("04/11/2000"), null, 3, h1, f3);
 
-            Mariage union_E = new Mariage(sdf.parse("10/06/1992"), sdf.parse("15/08/1995"), 1, h2, f5);
-            Mariage union_F = new Mariage(sdf.parse("20/09/1996"), null, 2, h3, f5);
+            Mariage m5 = new Mariage(sdf.parse("10/06/1992"), sdf.parse("15/08/1995"), 1, h2, f5);
+            Mariage m6 = new Mariage(sdf.parse("20/09/1996"), null, 2, h3, f5);
 
-            Mariage union_G = new Mariage(sdf.parse("15/03/1993"), sdf.parse("10/07/1998"), 0, h4, f6);
-            Mariage union_H = new Mariage(sdf.parse("25/11/2000"), null, 3, h5, f6);
+            Mariage m7 = new Mariage(sdf.parse("15/03/1993"), sdf.parse("10/07/1998"), 0, h4, f6);
+            Mariage m8 = new Mariage(sdf.parse("25/11/2000"), null, 3, h5, f6);
 
-            Mariage union_I = new Mariage(sdf.parse("12/04/1994"), null, 2, h2, f7);
-            Mariage union_J = new Mariage(sdf.parse("08/08/1997"), null, 1, h3, f8);
-            Mariage union_K = new Mariage(sdf.parse("19/02/1999"), null, 2, h4, f9);
-            Mariage union_L = new Mariage(sdf.parse("30/05/2001"), null, 1, h5, f10);
+            Mariage m9 = new Mariage(sdf.parse("12/04/1994"), null, 2, h2, f7);
+            Mariage m10 = new Mariage(sdf.parse("08/08/1997"), null, 1, h3, f8);
+            Mariage m11 = new Mariage(sdf.parse("19/02/1999"), null, 2, h4, f9);
+            Mariage m12 = new Mariage(sdf.parse("30/05/2001"), null, 1, h5, f10);
 
             mariageService.create(m1);
             mariageService.create(m2);
@@ -0,0 +1,84 @@
+package ma.projet.service;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * countHommesMarieA4FemmesEntreDates : comptage par la base (table dérivée) comparé à l'ancienne requête
+ * qui remontait une ligne par homme
+ * Mesure complète : -Dbenchmark.rows=250000 (hommes, 3,5 mariages en moyenne)
+ */
+class CountHommesMarieA4FemmesTest extends EtatCivilTestSupport {
+
+    private static final int HOMMES = lignes(20_000);
+
+    @Test
+    void comptageParLaBaseSansUneLigneParHomme() throws Exception {
+        ouvrir("ex03_count");
+        insererPersonnes("homme", 1, HOMMES);
+        insererPersonnes("femme", HOMMES + 1, 2 * HOMMES);
+        insererMariages(HOMMES, HOMMES);
+        HommeService hommeService = context.getBean(HommeService.class);
+
+        Date[][] periodes = {
+            {date("01/01/1980"), date("31/12/1984")},
+            {date("01/01/1970"), date("31/12/2004")}
+        };
+        // Sur toute la période, seuls les hommes h % 4 == 2 ont exactement 4 mariages
+        int attendu = (HOMMES + 2) / 4;
+
+        for (Date[] periode : periodes) {
+            Date debut = periode[0];
+            Date fin = periode[1];
+            Mesure avant = mesurer(() -> ancienComptage(debut, fin));
+            Mesure apres = mesurer(() -> hommeService.countHommesMarieA4FemmesEntreDates(debut, fin));
+
+            System.out.printf("%d hommes, %tY-%tY : GROUP BY + size() = %.0f ms / %d Ko, COUNT(*) = %.0f ms / %d Ko%n",
+                HOMMES, debut, fin, avant.millis, avant.octets / 1024, apres.millis, apres.octets / 1024);
+
+            assertEquals(avant.resultat, apres.resultat);
+            assertTrue(apres.octets < avant.octets, "Le comptage ne doit pas remonter une ligne par homme");
+        }
+        assertEquals(attendu, hommeService.countHommesMarieA4FemmesEntreDates(periodes[1][0], periodes[1][1]));
+    }
+
+    // Implémentation d'origine : une ligne par homme retenu, comptée en Java
+    private int ancienComptage(Date dateDebut, Date dateFin) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery(
+                "SELECT COUNT(DISTINCT m.homme) FROM Mariage m "
+                + "WHERE m.dateDebut BETWEEN :dateDebut AND :dateFin "
+                + "GROUP BY m.homme "
+                + "HAVING COUNT(m.femme) = 4", Long.class)
+                .setParameter("dateDebut", dateDebut)
+                .setParameter("dateFin", dateFin)
+                .list()
+                .size();
+        }
+    }
+
+    // Meilleur temps de 3 exécutions, allocation de la dernière
+    private static Mesure mesurer(IntSupplier comptage) {
+        Mesure mesure = new Mesure();
+        mesure.millis = Double.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long octets = octetsAlloues();
+            long debut = System.nanoTime();
+            mesure.resultat = comptage.getAsInt();
+            mesure.millis = Math.min(mesure.millis, millis(debut));
+            mesure.octets = octetsAlloues() - octets;
+        }
+        return mesure;
+    }
+
+    private static final class Mesure {
+        int resultat;
+        double millis;
+        long octets;
+    }
+}
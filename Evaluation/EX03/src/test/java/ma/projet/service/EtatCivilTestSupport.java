@@ -0,0 +1,93 @@
+package ma.projet.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Contexte Spring du profil par défaut sur une base H2 en mémoire, données synthétiques insérées en SQL
+ * Les volumes sont réduits par défaut ; mesure complète avec -Dbenchmark.rows=...
+ */
+abstract class EtatCivilTestSupport {
+
+    protected ClassPathXmlApplicationContext context;
+    protected JdbcTemplate jdbc;
+    protected SessionFactory sessionFactory;
+
+    protected static int lignes(int parDefaut) {
+        return Integer.getInteger("benchmark.rows", parDefaut);
+    }
+
+    protected void ouvrir(String base) {
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.url", "jdbc:h2:mem:" + base + ";DB_CLOSE_DELAY=-1");
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("hibernate.hbm2ddl.auto", "create");
+        System.setProperty("hibernate.show_sql", "false");
+        context = new ClassPathXmlApplicationContext("applicationContext.xml");
+        jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        sessionFactory = context.getBean(SessionFactory.class);
+    }
+
+    @AfterEach
+    void fermer() {
+        if (context != null) {
+            jdbc.execute("DROP ALL OBJECTS");
+            context.close();
+        }
+    }
+
+    /**
+     * Personnes d'identifiants premier..dernier, nées entre 1940 et 1994 ; table = "homme" ou "femme"
+     */
+    protected void insererPersonnes(String table, int premier, int dernier) {
+        jdbc.update("INSERT INTO personne (id, nom, prenom, telephone, adresse, dateNaissance) "
+            + "SELECT x, 'NOM' || x, 'PRENOM' || x, '06' || x, 'Ville', "
+            + "DATEADD('DAY', MOD(x * 7919, 20000), DATE '1940-01-01') FROM SYSTEM_RANGE(?, ?)", premier, dernier);
+        jdbc.update("INSERT INTO " + table + " (id) SELECT x FROM SYSTEM_RANGE(?, ?)", premier, dernier);
+    }
+
+    /**
+     * Mariages des hommes 1..hommes avec les femmes hommes+1..hommes+femmes :
+     * l'homme h a 2 + h % 4 mariages (2 à 5), débutés entre 1970 et 2004
+     */
+    protected void insererMariages(int hommes, int femmes) {
+        jdbc.update("INSERT INTO mariage (id, dateDebut, dateFin, nbrEnfant, homme_id, femme_id) "
+            + "SELECT h.x * 8 + k.x, DATEADD('DAY', MOD(h.x * 31 + k.x * 1097, 12775), DATE '1970-01-01'), NULL, "
+            + "MOD(h.x + k.x, 5), h.x, ? + 1 + MOD(h.x * 5 + k.x, ?) "
+            + "FROM SYSTEM_RANGE(1, ?) h, SYSTEM_RANGE(0, 4) k WHERE k.x < 2 + MOD(h.x, 4)", hommes, femmes, hommes);
+    }
+
+    protected Statistics statistiques() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    /**
+     * Octets alloués jusqu'ici par le thread courant (extension HotSpot de ThreadMXBean)
+     */
+    protected static long octetsAlloues() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    protected static double millis(long debut) {
+        return (System.nanoTime() - debut) / 1_000_000.0;
+    }
+
+    protected static Date date(String jjmmaaaa) throws ParseException {
+        return new SimpleDateFormat("dd/MM/yyyy").parse(jjmmaaaa);
+    }
+}
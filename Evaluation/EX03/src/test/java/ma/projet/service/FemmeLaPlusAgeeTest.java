@@ -0,0 +1,72 @@
+package ma.projet.service;
+
+import ma.projet.beans.Femme;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * findFemmeLaPlusAgee : lecture indexée de la date la plus ancienne comparée à l'ancien findAll + minimum en Java
+ * Mesure complète : -Dbenchmark.rows=1000000 (femmes)
+ */
+class FemmeLaPlusAgeeTest extends EtatCivilTestSupport {
+
+    private static final int FEMMES = lignes(20_000);
+
+    @Test
+    void femmeLaPlusAgeeCalculeeParLaBase() throws Exception {
+        ouvrir("ex03_plus_agee");
+        // Des hommes plus âgés que toutes les femmes : la requête doit ignorer les personnes qui ne sont pas des femmes
+        insererPersonnes("homme", 1, 100);
+        jdbc.update("UPDATE personne SET dateNaissance = DATE '1920-01-01' WHERE id <= 100");
+        insererPersonnes("femme", 101, FEMMES + 100);
+        // Deux femmes ex aequo sur la date la plus ancienne
+        jdbc.update("UPDATE personne SET dateNaissance = DATE '1930-06-15' WHERE id IN (?, ?)", FEMMES + 50, 500);
+        FemmeService femmeService = context.getBean(FemmeService.class);
+
+        // Avant : toutes les femmes chargées, minimum calculé en Java
+        long octets = octetsAlloues();
+        long debut = System.nanoTime();
+        Femme avant = femmeService.findAll().stream()
+            .min(Comparator.comparing(Femme::getDateNaissance))
+            .orElse(null);
+        double avantMillis = millis(debut);
+        long avantOctets = octetsAlloues() - octets;
+
+        // Après : deux lectures indexées (un premier appel prépare les requêtes nommées)
+        femmeService.findFemmeLaPlusAgee();
+        Statistics statistics = statistiques();
+        octets = octetsAlloues();
+        debut = System.nanoTime();
+        Femme apres = femmeService.findFemmeLaPlusAgee();
+        double apresMillis = millis(debut);
+        long apresOctets = octetsAlloues() - octets;
+        long requetes = statistics.getPrepareStatementCount();
+
+        List<Femme> exAequo = femmeService.findFemmesLesPlusAgees();
+
+        System.out.printf("%d femmes : findAll + min = %.0f ms / %d Ko, findFemmeLaPlusAgee = %.1f ms / %d Ko (%d requêtes)%n",
+            FEMMES, avantMillis, avantOctets / 1024, apresMillis, apresOctets / 1024, requetes);
+
+        assertEquals(avant.getDateNaissance(), apres.getDateNaissance());
+        assertEquals(500, apres.getId(), "En cas d'égalité, la femme de plus petit identifiant est retenue");
+        assertEquals(2, exAequo.size());
+        assertEquals(500, exAequo.get(0).getId());
+        assertEquals(FEMMES + 50, exAequo.get(1).getId());
+        assertEquals(2, requetes);
+        assertTrue(apresOctets * 10 < avantOctets, "Une seule femme doit être matérialisée");
+    }
+
+    @Test
+    void aucuneFemme() {
+        ouvrir("ex03_plus_agee_vide");
+        FemmeService femmeService = context.getBean(FemmeService.class);
+
+        assertNull(femmeService.findFemmeLaPlusAgee());
+        assertTrue(femmeService.findFemmesLesPlusAgees().isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package ma.projet.service;
+
+import ma.projet.beans.Femme;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Variantes en lot des statistiques d'état civil comparées à une boucle d'appels par personne :
+ * mêmes résultats, nombre de requêtes fixé par le nombre de lots de 1000 identifiants
+ * Mesure complète : -Dbenchmark.rows=10000 (hommes et autant de femmes)
+ */
+class StatistiquesEnLotTest extends EtatCivilTestSupport {
+
+    private static final int PERSONNES = lignes(2_000);
+
+    @Test
+    void memesResultatsEnUnNombreConstantDeRequetes() throws Exception {
+        ouvrir("ex03_lots");
+        insererPersonnes("homme", 1, PERSONNES);
+        insererPersonnes("femme", PERSONNES + 1, 2 * PERSONNES);
+        insererMariages(PERSONNES, PERSONNES);
+        FemmeService femmeService = context.getBean(FemmeService.class);
+        HommeService hommeService = context.getBean(HommeService.class);
+
+        List<Integer> hommeIds = new ArrayList<>();
+        List<Integer> femmeIds = new ArrayList<>();
+        for (int i = 1; i <= PERSONNES; i++) {
+            hommeIds.add(i);
+            femmeIds.add(PERSONNES + i);
+        }
+        Date debut = date("01/01/1980");
+        Date fin = date("31/12/1994");
+        int lots = (PERSONNES + Lots.TAILLE - 1) / Lots.TAILLE;
+
+        // Avant : une requête par personne et par statistique
+        Statistics statistics = statistiques();
+        long t0 = System.nanoTime();
+        Map<Integer, Integer> enfantsParFemme = new HashMap<>();
+        for (Integer femmeId : femmeIds) {
+            enfantsParFemme.put(femmeId, femmeService.countEnfantsFemmeEntreDates(femmeId, debut, fin));
+        }
+        Map<Integer, Set<Integer>> epousesParHomme = new HashMap<>();
+        for (Integer hommeId : hommeIds) {
+            epousesParHomme.put(hommeId, ids(hommeService.findEpousesEntreDeuxDates(hommeId, debut, fin)));
+        }
+        Set<Integer> marieesDeuxFois = ids(femmeService.findFemmesMarieesAuMoinsDeuxFois());
+        double boucleMillis = millis(t0);
+        long boucleRequetes = statistics.getPrepareStatementCount();
+
+        // Après : une requête groupée par lot d'identifiants
+        statistics.clear();
+        t0 = System.nanoTime();
+        Map<Integer, Integer> enfantsEnLot = femmeService.countEnfantsFemmesEntreDates(femmeIds, debut, fin);
+        long requetesEnfants = statistics.getPrepareStatementCount();
+        Map<Integer, List<Femme>> epousesEnLot = hommeService.findEpousesEntreDeuxDates(hommeIds, debut, fin);
+        long requetesEpouses = statistics.getPrepareStatementCount() - requetesEnfants;
+        List<Femme> marieesEnLot = femmeService.findFemmesMarieesAuMoinsDeuxFois(femmeIds);
+        double lotMillis = millis(t0);
+        long lotRequetes = statistics.getPrepareStatementCount();
+
+        System.out.printf("%d hommes, %d femmes : boucle = %.0f ms / %d requêtes, en lot = %.0f ms / %d requêtes%n",
+            PERSONNES, PERSONNES, boucleMillis, boucleRequetes, lotMillis, lotRequetes);
+
+        assertEquals(enfantsParFemme, enfantsEnLot);
+        assertEquals(epousesParHomme, epousesEnLot.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> ids(e.getValue()))));
+        assertEquals(marieesDeuxFois, ids(marieesEnLot));
+        assertFalse(marieesDeuxFois.isEmpty());
+
+        assertEquals(lots, requetesEnfants);
+        assertEquals(lots, requetesEpouses);
+        assertEquals(3L * lots, lotRequetes);
+        assertTrue(boucleRequetes >= 2L * PERSONNES);
+    }
+
+    @Test
+    void personnesSansMariageSurLaPeriode() throws Exception {
+        ouvrir("ex03_lots_vide");
+        insererPersonnes("homme", 1, 3);
+        insererPersonnes("femme", 4, 6);
+        FemmeService femmeService = context.getBean(FemmeService.class);
+        HommeService hommeService = context.getBean(HommeService.class);
+        Date debut = date("01/01/1980");
+        Date fin = date("31/12/1994");
+
+        Map<Integer, Integer> enfants = femmeService.countEnfantsFemmesEntreDates(List.of(4, 5, 6), debut, fin);
+        Map<Integer, List<Femme>> epouses = hommeService.findEpousesEntreDeuxDates(List.of(1, 2, 3), debut, fin);
+
+        assertEquals(Map.of(4, 0, 5, 0, 6, 0), enfants);
+        assertEquals(Set.of(1, 2, 3), epouses.keySet());
+        assertTrue(epouses.values().stream().allMatch(List::isEmpty));
+        assertTrue(femmeService.findFemmesMarieesAuMoinsDeuxFois(List.of(4, 5, 6)).isEmpty());
+    }
+
+    private static Set<Integer> ids(List<Femme> femmes) {
+        return femmes.stream().map(Femme::getId).collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -0,0 +1,114 @@
+package ma.projet.test;
+
+import ma.projet.beans.Femme;
+import ma.projet.beans.Homme;
+import ma.projet.beans.Mariage;
+import ma.projet.service.FemmeService;
+import ma.projet.service.HommeService;
+import ma.projet.service.MariageService;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compare le profil par défaut et le profil "performance" de applicationContext.xml contre H2
+// Usage : mvn test-compile exec:java -Dexec.mainClass=ma.projet.test.PerformanceBenchmark -Dexec.classpathScope=test [-Dexec.args=<nombre d'opérations>]
+// Ajouter -Dbenchmark.url=jdbc:h2:tcp://localhost/mem: pour un serveur H2
+public class PerformanceBenchmark {
+
+    private static final String[] PROFILS = {"default", "performance"};
+
+    // étape -> durée en ms pour chaque profil, dans l'ordre de PROFILS
+    private static final Map<String, long[]> RESULTATS = new LinkedHashMap<>();
+
+    private interface Etape {
+        void executer() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        // Les propriétés système priment sur application.properties
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("hibernate.hbm2ddl.auto", "create");
+
+        for (int p = 0; p < PROFILS.length; p++) {
+            System.setProperty("spring.profiles.active", PROFILS[p]);
+            System.setProperty("db.url", System.getProperty("benchmark.url", "jdbc:h2:mem:")
+                                         + "ex03_" + PROFILS[p] + ";DB_CLOSE_DELAY=-1");
+            try (ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("applicationContext.xml")) {
+                executer(context, p, n);
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-32s %12s %12s %8s%n", "Étape", "défaut (ms)", "perf. (ms)", "gain");
+        for (Map.Entry<String, long[]> e : RESULTATS.entrySet()) {
+            long[] ms = e.getValue();
+            System.out.printf("%-32s %12d %12d %7.1fx%n", e.getKey(), ms[0], ms[1], (double) ms[0] / Math.max(ms[1], 1));
+        }
+    }
+
+    private static void mesurer(String etape, int profil, Etape e) throws Exception
+    {
+        long debut = System.nanoTime();
+        e.executer();
+        RESULTATS.computeIfAbsent(etape, k -> new long[PROFILS.length])[profil] = (System.nanoTime() - debut) / 1_000_000;
+    }
+
+    // Même enchaînement que TestApplication, à plus grande échelle : une transaction par appel de service
+    private static void executer(ClassPathXmlApplicationContext context, int p, int n) throws Exception
+    {
+        HommeService hommeService = context.getBean(HommeService.class);
+        FemmeService femmeService = context.getBean(FemmeService.class);
+        MariageService mariageService = context.getBean(MariageService.class);
+
+        long jour = 86_400_000L;
+        List<Homme> hommes = new ArrayList<>();
+        List<Femme> femmes = new ArrayList<>();
+
+        mesurer("create homme + femme x" + n, p, () -> {
+            for (int i = 0; i < n; i++) {
+                Homme homme = new Homme("HOMME" + i, "PRENOM", "0600000000", "Casablanca", new Date(i * jour));
+                hommeService.create(homme);
+                hommes.add(homme);
+                Femme femme = new Femme("FEMME" + i, "PRENOM", "0600000000", "Rabat", new Date(i * jour));
+                femmeService.create(femme);
+                femmes.add(femme);
+            }
+        });
+        mesurer("create mariage x" + n, p, () -> {
+            for (int i = 0; i < n; i++) {
+                mariageService.create(new Mariage(new Date(i * jour), null, i % 4, hommes.get(i / 4), femmes.get(i)));
+            }
+        });
+        mesurer("findById femme x" + n, p, () -> {
+            for (Femme femme : femmes) {
+                femmeService.findById(femme.getId());
+            }
+        });
+        mesurer("update femme x" + n, p, () -> {
+            for (Femme femme : femmes) {
+                femme.setTelephone("0700000000");
+                femmeService.update(femme);
+            }
+        });
+        mesurer("epouses par homme x" + n / 4, p, () -> {
+            for (int i = 0; i < n / 4; i++) {
+                hommeService.findEpousesEntreDeuxDates(hommes.get(i).getId(), new Date(0), new Date());
+            }
+        });
+        mesurer("femme la plus agee x" + n / 10, p, () -> {
+            for (int i = 0; i < n / 10; i++) {
+                femmeService.findFemmeLaPlusAgee();
+            }
+        });
+    }
+}
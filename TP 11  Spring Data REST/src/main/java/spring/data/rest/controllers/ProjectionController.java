@@ -0,0 +1,120 @@
+package spring.data.rest.controllers;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.core.mapping.ResourceMappings;
+import org.springframework.data.rest.core.mapping.ResourceMetadata;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.ProfileController;
+import org.springframework.data.rest.webmvc.ProfileResourceProcessor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.rest.webmvc.support.RepositoryEntityLinks;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import spring.data.rest.entities.Client;
+import spring.data.rest.entities.Compte;
+import spring.data.rest.entities.TypeCompte;
+import spring.data.rest.repositories.ClientRepository;
+import spring.data.rest.repositories.CompteRepository;
+import spring.data.rest.repositories.ProjectionQueryExecutor;
+
+import java.util.List;
+
+/**
+ * Ressources de collection demandées avec ?projection= : la requête ne lit que ce que la projection affiche
+ * (voir ProjectionQueryExecutor). Le rendu HAL (liens, pagination) reste celui de Spring Data REST.
+ * Sans paramètre projection, ou avec une projection inconnue, le comportement par défaut est conservé.
+ */
+@RepositoryRestController
+public class ProjectionController {
+
+    private final ProjectionQueryExecutor projectionQueryExecutor;
+    private final CompteRepository compteRepository;
+    private final ClientRepository clientRepository;
+    private final RepositoryRestConfiguration restConfiguration;
+    private final ResourceMappings resourceMappings;
+    private final RepositoryEntityLinks entityLinks;
+
+    public ProjectionController(ProjectionQueryExecutor projectionQueryExecutor, CompteRepository compteRepository,
+                                ClientRepository clientRepository, RepositoryRestConfiguration restConfiguration,
+                                ResourceMappings resourceMappings, RepositoryEntityLinks entityLinks) {
+        this.projectionQueryExecutor = projectionQueryExecutor;
+        this.compteRepository = compteRepository;
+        this.clientRepository = clientRepository;
+        this.restConfiguration = restConfiguration;
+        this.resourceMappings = resourceMappings;
+        this.entityLinks = entityLinks;
+    }
+
+    // GET /comptes?projection=solde|mobile
+    @GetMapping(path = "/comptes", params = "projection")
+    @ResponseBody
+    public CollectionModel<?> getComptes(@RequestParam String projection, Pageable pageable,
+                                         PagedResourcesAssembler<Object> pagedAssembler,
+                                         PersistentEntityResourceAssembler assembler) {
+        Class<?> projectionType = projectionType(Compte.class, projection);
+        Page<Compte> page = projectionType != null
+                ? projectionQueryExecutor.findAll(Compte.class, projectionType, null, pageable)
+                : compteRepository.findAll(pageable);
+        return toPagedModel(page, Compte.class, pagedAssembler, assembler);
+    }
+
+    // GET /comptes/search/byType?t=...&projection=solde|mobile
+    @GetMapping(path = "/comptes/search/byType", params = "projection")
+    @ResponseBody
+    public CollectionModel<?> getComptesByType(@RequestParam("t") TypeCompte type, @RequestParam String projection,
+                                               PersistentEntityResourceAssembler assembler) {
+        Class<?> projectionType = projectionType(Compte.class, projection);
+        List<Compte> comptes = projectionType != null
+                ? projectionQueryExecutor.findAll(Compte.class, projectionType,
+                        (root, query, builder) -> builder.equal(root.get("type"), type))
+                : compteRepository.findByType(type);
+        List<PersistentEntityResource> resources = comptes.stream().map(assembler::toModel).toList();
+        CollectionModel<?> model = resources.isEmpty()
+                ? CollectionModel.empty(Compte.class)
+                : CollectionModel.of(resources);
+        return model.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build().toUriString()));
+    }
+
+    // GET /clients?projection=clientDetails
+    @GetMapping(path = "/clients", params = "projection")
+    @ResponseBody
+    public CollectionModel<?> getClients(@RequestParam String projection, Pageable pageable,
+                                         PagedResourcesAssembler<Object> pagedAssembler,
+                                         PersistentEntityResourceAssembler assembler) {
+        Class<?> projectionType = projectionType(Client.class, projection);
+        Page<Client> page = projectionType != null
+                ? projectionQueryExecutor.findAll(Client.class, projectionType, null, pageable)
+                : clientRepository.findAll(pageable);
+        return toPagedModel(page, Client.class, pagedAssembler, assembler);
+    }
+
+    private Class<?> projectionType(Class<?> domainType, String projection) {
+        return restConfiguration.getProjectionConfiguration().getProjectionType(domainType, projection);
+    }
+
+    // Mêmes liens que la collection par défaut de Spring Data REST : pagination, profile et search
+    @SuppressWarnings("unchecked")
+    private PagedModel<?> toPagedModel(Page<?> page, Class<?> domainType, PagedResourcesAssembler<Object> pagedAssembler,
+                                       PersistentEntityResourceAssembler assembler) {
+        PagedModel<?> model = page.hasContent()
+                ? pagedAssembler.toModel((Page<Object>) page, assembler)
+                : pagedAssembler.toEmptyModel(page, domainType);
+        ResourceMetadata metadata = resourceMappings.getMetadataFor(domainType);
+        model.add(Link.of(ProfileController.getPath(restConfiguration, metadata), ProfileResourceProcessor.PROFILE_REL));
+        if (metadata.getSearchResourceMappings().isExported()) {
+            model.add(entityLinks.linkFor(domainType)
+                    .slash(metadata.getSearchResourceMappings().getPath())
+                    .withRel(metadata.getSearchResourceMappings().getRel()));
+        }
+        return model;
+    }
+}
@@ -23,7 +23,8 @@ public class Compte {
     @Enumerated(EnumType.STRING)
     private TypeCompte type;
 
-    @ManyToOne
+    // LAZY : un compte chargé ne déclenche plus une requête par client ; le client est exposé par un lien
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id")
     private Client client;
 }
@@ -1,5 +1,6 @@
 package spring.data.rest.repositories;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RestResource;
 import spring.data.rest.entities.Compte;
@@ -14,6 +15,11 @@ public interface CompteRepository extends JpaRepository<Compte, Long> {
 
     Compte save(Compte compte);
 
+    // Client chargé par jointure : la liste complète est affichée hors transaction, client compris
+    @Override
+    @EntityGraph(attributePaths = "client")
+    List<Compte> findAll();
+
     @RestResource(path = "/byType")
     public List<Compte> findByType(@Param("t") TypeCompte type);
-}
\ No newline at end of file
+}
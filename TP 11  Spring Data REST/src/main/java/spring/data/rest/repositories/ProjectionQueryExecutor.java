@@ -0,0 +1,126 @@
+package spring.data.rest.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.ProjectionInformation;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exécute les requêtes des ressources projetées : seules les colonnes lues par la projection
+ * (et l'identifiant, nécessaire aux liens) sont sélectionnées, et les associations simples
+ * qu'elle lit sont chargées par jointure dans la même requête.
+ * Les résultats sont des entités partielles, non gérées, destinées uniquement à être projetées.
+ */
+@Component
+public class ProjectionQueryExecutor {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @Transactional(readOnly = true)
+    public <T> Page<T> findAll(Class<T> domainType, Class<?> projectionType, Specification<T> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        List<T> content = find(domainType, projectionType, specification, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> count = builder.createQuery(Long.class);
+            Root<T> root = count.from(domainType);
+            if (specification != null) {
+                count.where(specification.toPredicate(root, count, builder));
+            }
+            return entityManager.createQuery(count.select(builder.count(root))).getSingleResult();
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public <T> List<T> findAll(Class<T> domainType, Class<?> projectionType, Specification<T> specification) {
+        return find(domainType, projectionType, specification, Pageable.unpaged());
+    }
+
+    private <T> List<T> find(Class<T> domainType, Class<?> projectionType, Specification<T> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        EntityType<T> entityType = entityManager.getMetamodel().entity(domainType);
+        List<String> attributes = projectedAttributes(entityType, projectionType);
+
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(domainType);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String name : attributes) {
+            Attribute<? super T, ?> attribute = entityType.getAttribute(name);
+            selections.add(attribute.isAssociation() ? root.join(name, JoinType.LEFT) : root.get(name));
+        }
+        query.multiselect(selections);
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, builder));
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<T> entities = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            T entity = BeanUtils.instantiateClass(domainType);
+            PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(entity);
+            for (int i = 0; i < attributes.size(); i++) {
+                accessor.setPropertyValue(attributes.get(i), tuple.get(i));
+            }
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    /**
+     * Identifiant puis attributs lus par la projection. Une projection ouverte (SpEL) ou qui lit
+     * une collection ne peut pas être réduite à des colonnes : tous les attributs simples sont alors lus.
+     */
+    private <T> List<String> projectedAttributes(EntityType<T> entityType, Class<?> projectionType) {
+        List<String> attributes = new ArrayList<>();
+        attributes.add(entityType.getId(entityType.getIdType().getJavaType()).getName());
+        ProjectionInformation information = projectionFactory.getProjectionInformation(projectionType);
+        boolean reducible = information.isClosed();
+        if (reducible) {
+            for (PropertyDescriptor property : information.getInputProperties()) {
+                Attribute<? super T, ?> attribute = entityType.getAttribute(property.getName());
+                if (attribute.isCollection()) {
+                    reducible = false;
+                    break;
+                }
+                if (!attributes.contains(attribute.getName())) {
+                    attributes.add(attribute.getName());
+                }
+            }
+        }
+        if (!reducible) {
+            attributes.clear();
+            for (Attribute<? super T, ?> attribute : entityType.getAttributes()) {
+                if (!attribute.isCollection()) {
+                    attributes.add(attribute.getName());
+                }
+            }
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,173 @@
+package spring.data.rest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = MsBanqueApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				// Base propre à cette classe : le runner de MsBanqueApplication des autres contextes n'y voit pas les 20k comptes
+				"spring.datasource.url=jdbc:h2:mem:projections",
+				"spring.jpa.properties.hibernate.generate_statistics=true",
+				"spring.jpa.properties.hibernate.session_factory.statement_inspector=spring.data.rest.SqlCapture",
+				"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+		})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CompteProjectionTests {
+
+	// Chaque client reçoit COMPTES_PAR_CLIENT comptes
+	private static final int NB_CLIENTS = 1000;
+
+	private static final int COMPTES_PAR_CLIENT = 20;
+
+	private static final int NB_MESURES = 5;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeAll
+	void insererComptes() {
+		jdbcTemplate.update("INSERT INTO client (nom, email) "
+				+ "SELECT CONCAT('client', x), CONCAT('client', x, '@banque.ma') FROM SYSTEM_RANGE(1, " + NB_CLIENTS + ")");
+		jdbcTemplate.update("INSERT INTO compte (solde, date_creation, type, client_id) "
+				+ "SELECT MOD(r.x * c.id, 9000), DATE '2024-01-01', CASE WHEN MOD(r.x, 2) = 0 THEN 'COURANT' ELSE 'EPARGNE' END, c.id "
+				+ "FROM SYSTEM_RANGE(1, " + COMPTES_PAR_CLIENT + ") r CROSS JOIN client c");
+	}
+
+	@Test
+	void mesurerProjections() throws Exception {
+		// Une page (select + count) ou une recherche (select) : aucune requête par client
+		Mesure page = mesurer("/api/comptes?size=1000");
+		Mesure pageSolde = mesurer("/api/comptes?size=1000&projection=solde");
+		Mesure pageMobile = mesurer("/api/comptes?size=1000&projection=mobile");
+		Mesure recherche = mesurer("/api/comptes/search/byType?t=EPARGNE");
+		Mesure rechercheMobile = mesurer("/api/comptes/search/byType?t=EPARGNE&projection=mobile");
+		Mesure clients = mesurer("/api/clients?size=1000&projection=clientDetails");
+
+		assertTrue(page.requetes <= 2);
+		assertTrue(pageSolde.requetes <= 2);
+		assertTrue(pageMobile.requetes <= 2);
+		assertEquals(1, recherche.requetes);
+		assertEquals(1, rechercheMobile.requetes);
+		assertTrue(clients.requetes <= 2);
+
+		// Une projection ne lit qu'une partie des colonnes : elle ne doit pas coûter plus que l'entité complète
+		assertPasPlusLent(pageSolde, page);
+		assertPasPlusLent(pageMobile, page);
+		assertPasPlusLent(rechercheMobile, recherche);
+	}
+
+	@Test
+	void projectionNeLitQueLesColonnesProjetees() throws Exception {
+		SqlCapture.vider();
+		String solde = get("/api/comptes?size=5&projection=solde");
+		assertEquals(List.of("id", "solde"), colonnesLues("compte"));
+		assertTrue(solde.contains("\"solde\""));
+		assertFalse(solde.contains("\"type\""));
+		assertTrue(solde.contains("/api/comptes/1/client{?projection}"));
+
+		SqlCapture.vider();
+		String mobile = get("/api/comptes/search/byType?t=COURANT&projection=mobile");
+		assertEquals(List.of("id", "solde", "type"), colonnesLues("compte"));
+		assertTrue(mobile.contains("\"type\" : \"COURANT\""));
+		assertFalse(mobile.contains("\"type\" : \"EPARGNE\""));
+		assertFalse(mobile.contains("dateCreation"));
+
+		SqlCapture.vider();
+		get("/api/clients?size=5&projection=clientDetails");
+		assertEquals(List.of("id", "nom", "email"), colonnesLues("client"));
+
+		// Sans projection, l'entité complète est lue
+		SqlCapture.vider();
+		get("/api/comptes?size=5");
+		assertTrue(colonnesLues("compte").containsAll(List.of("id", "solde", "date_creation", "type", "client_id")));
+	}
+
+	// Colonnes du select principal sur la table, sans les alias ; les requêtes count() sont ignorées
+	private static List<String> colonnesLues(String table) {
+		return SqlCapture.requetes().stream()
+				.map(sql -> sql.toLowerCase(Locale.ROOT))
+				.filter(sql -> sql.startsWith("select ") && !sql.startsWith("select count(")
+						&& sql.contains(" from " + table + " "))
+				.map(sql -> Arrays.stream(sql.substring("select ".length(), sql.indexOf(" from ")).split(","))
+						.map(colonne -> colonne.trim().replaceFirst("^\\w+\\.", ""))
+						.collect(Collectors.toList()))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("Aucun select sur " + table + " : " + SqlCapture.requetes()));
+	}
+
+	// Tolérance de 20 % plus 20 ms pour le bruit de mesure
+	private static void assertPasPlusLent(Mesure projection, Mesure entite) {
+		assertTrue(projection.medianeMs <= entite.medianeMs * 1.2 + 20,
+				projection.chemin + " : " + projection.medianeMs + " ms, " + entite.chemin + " : " + entite.medianeMs + " ms");
+	}
+
+	private String get(String chemin) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + chemin))
+				.header("Accept", "application/hal+json").build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode());
+		return response.body();
+	}
+
+	// Nombre de requêtes SQL et médiane des durées d'un appel
+	private Mesure mesurer(String chemin) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + chemin))
+				.header("Accept", "application/hal+json").build();
+		// Un appel de chauffe, puis médiane des mesures
+		String corps = get(chemin);
+		long[] durees = new long[NB_MESURES];
+		long requetes = 0;
+		for (int i = 0; i < NB_MESURES; i++) {
+			statistics.clear();
+			long debut = System.nanoTime();
+			HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+			durees[i] = System.nanoTime() - debut;
+			assertEquals(200, response.statusCode());
+			requetes = statistics.getPrepareStatementCount();
+		}
+		Arrays.sort(durees);
+		Mesure mesure = new Mesure(chemin, requetes, durees[NB_MESURES / 2] / 1_000_000);
+		System.out.printf("%-58s %5d requêtes SQL, médiane %5d ms, %8d octets%n",
+				chemin, mesure.requetes, mesure.medianeMs, corps.length());
+		String sortie = System.getProperty("benchmark.sortie");
+		if (sortie != null) {
+			Files.writeString(Path.of(sortie, chemin.replaceAll("[^A-Za-z0-9]", "_") + ".json"), corps);
+		}
+		return mesure;
+	}
+
+	private record Mesure(String chemin, long requetes, long medianeMs) {
+	}
+}
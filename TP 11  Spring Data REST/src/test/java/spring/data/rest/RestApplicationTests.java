@@ -3,7 +3,7 @@ package spring.data.rest;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(classes = MsBanqueApplication.class)
 class RestApplicationTests {
 
 	@Test
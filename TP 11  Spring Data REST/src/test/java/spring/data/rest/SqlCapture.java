@@ -0,0 +1,30 @@
+package spring.data.rest;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Conserve le SQL préparé par Hibernate (hibernate.session_factory.statement_inspector),
+ * pour vérifier dans les tests les colonnes réellement lues.
+ */
+public class SqlCapture implements StatementInspector {
+
+	private static final List<String> REQUETES = new CopyOnWriteArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		REQUETES.add(sql);
+		return sql;
+	}
+
+	static void vider() {
+		REQUETES.clear();
+	}
+
+	static List<String> requetes() {
+		return new ArrayList<>(REQUETES);
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.banque_service.config;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded, least-recently-used cache of parsed and validated GraphQL documents.
+ * 
+ * <p>Entries are keyed by the SHA-256 hash of the query text. A hit skips both
+ * parsing and validation. Documents with errors are never cached, and the
+ * eldest entry is evicted once the maximum size is reached.</p>
+ * 
+ * @author MOHAMMED AMINE ELHARCHI
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class BoundedPersistedQueryCache implements PersistedQueryCache {
+    
+    private final Map<Object, PreparsedDocumentEntry> documents;
+    
+    /**
+     * Creates a cache holding at most {@code maxSize} documents.
+     * 
+     * @param maxSize Maximum number of cached documents
+     */
+    public BoundedPersistedQueryCache(int maxSize) {
+        this.documents = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, PreparsedDocumentEntry> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+    
+    /**
+     * Returns the cached document for a query hash, parsing and validating it on a miss.
+     * 
+     * @param persistedQueryId SHA-256 hash of the query
+     * @param executionInput The execution input, possibly without query text
+     * @param onCacheMiss Parses and validates the query text
+     * @return The cached or freshly parsed document
+     * @throws PersistedQueryNotFound if the hash is unknown and no query text was sent
+     */
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId,
+                                                                                   ExecutionInput executionInput,
+                                                                                   PersistedQueryCacheMiss onCacheMiss)
+            throws PersistedQueryNotFound {
+        PreparsedDocumentEntry entry = documents.get(persistedQueryId);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry);
+        }
+        
+        String query = executionInput.getQuery();
+        if (query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            throw new PersistedQueryNotFound(persistedQueryId);
+        }
+        
+        entry = onCacheMiss.apply(query);
+        if (!entry.hasErrors()) {
+            documents.put(persistedQueryId, entry);
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+    
+    /**
+     * @return Number of documents currently cached
+     */
+    public int size() {
+        return documents.size();
+    }
+}
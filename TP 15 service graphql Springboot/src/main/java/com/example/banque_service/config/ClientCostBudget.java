@@ -0,0 +1,87 @@
+package com.example.banque_service.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-client token bucket of query cost.
+ * 
+ * <p>Each client may spend up to {@code costPerMinute} cost units at once; the
+ * bucket then refills continuously at that rate. A query whose cost exceeds the
+ * remaining tokens is rejected without consuming any.</p>
+ * 
+ * <p>Buckets are kept in a bounded, least-recently-used map. A bucket unused for
+ * a minute is full again, so it is dropped as soon as it becomes the eldest entry;
+ * beyond {@code maxClients} the least recently used client is forgotten.</p>
+ * 
+ * @author MOHAMMED AMINE ELHARCHI
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class ClientCostBudget {
+    
+    private static final double NANOS_PER_MINUTE = 60e9;
+    
+    private final long costPerMinute;
+    private final Map<String, Bucket> buckets;
+    
+    /**
+     * @param costPerMinute Bucket capacity and refill rate per minute
+     * @param maxClients Maximum number of clients tracked at once
+     */
+    public ClientCostBudget(long costPerMinute, int maxClients) {
+        this.costPerMinute = costPerMinute;
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxClients || eldest.getValue().isIdle(System.nanoTime());
+            }
+        };
+    }
+    
+    /**
+     * Charges a query cost to a client.
+     * 
+     * @param clientId The client identifier
+     * @param cost Cost of the query
+     * @return true if the client had enough budget, false if the query must be rejected
+     */
+    public boolean tryConsume(String clientId, long cost) {
+        Bucket bucket;
+        synchronized (buckets) {
+            bucket = buckets.computeIfAbsent(clientId, id -> new Bucket());
+        }
+        return bucket.tryConsume(cost);
+    }
+    
+    /**
+     * @return Number of clients currently tracked
+     */
+    public int size() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+    
+    private class Bucket {
+        
+        private double tokens = costPerMinute;
+        private long lastRefill = System.nanoTime();
+        
+        synchronized boolean tryConsume(long cost) {
+            long now = System.nanoTime();
+            tokens = Math.min(costPerMinute, tokens + (now - lastRefill) * costPerMinute / NANOS_PER_MINUTE);
+            lastRefill = now;
+            if (tokens < cost) {
+                return false;
+            }
+            tokens -= cost;
+            return true;
+        }
+        
+        // Unused for a minute: the bucket has refilled and can be recreated at no cost
+        synchronized boolean isIdle(long now) {
+            return now - lastRefill >= NANOS_PER_MINUTE;
+        }
+    }
+}
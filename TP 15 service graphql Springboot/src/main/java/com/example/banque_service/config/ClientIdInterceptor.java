@@ -0,0 +1,36 @@
+package com.example.banque_service.config;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * Identifies the client of each HTTP GraphQL request for cost budgeting.
+ * 
+ * <p>The client ID is the remote address of the request, never a value chosen by
+ * the client: a header could be changed on every request to get a fresh budget.
+ * Behind a reverse proxy, {@code server.forward-headers-strategy} makes the
+ * remote address the one reported by the proxy. The ID is stored in the
+ * GraphQLContext for {@link QueryCostInstrumentation}.</p>
+ * 
+ * @author MOHAMMED AMINE ELHARCHI
+ * @version 1.0
+ * @since 2025-01-01
+ */
+@Component
+public class ClientIdInterceptor implements WebGraphQlInterceptor {
+    
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String clientId = remoteAddress != null ? remoteAddress.getHostString() : "unknown";
+        Map<String, Object> context = Map.of(QueryCostInstrumentation.CLIENT_ID_KEY, clientId);
+        request.configureExecutionInput((input, builder) -> builder.graphQLContext(context).build());
+        return chain.next(request);
+    }
+}
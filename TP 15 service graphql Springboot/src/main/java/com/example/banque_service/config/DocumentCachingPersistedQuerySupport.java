@@ -0,0 +1,54 @@
+package com.example.banque_service.config;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Automatic persisted queries (Apollo protocol) extended to every request.
+ * 
+ * <p>Requests carrying a {@code persistedQuery} extension are resolved by their
+ * SHA-256 hash, so clients may send the hash alone once the query is known.
+ * Plain requests are keyed by the hash of their query text, so repeated queries
+ * also reuse the parsed and validated document.</p>
+ * 
+ * @author MOHAMMED AMINE ELHARCHI
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class DocumentCachingPersistedQuerySupport extends ApolloPersistedQuerySupport {
+    
+    public DocumentCachingPersistedQuerySupport(PersistedQueryCache persistedQueryCache) {
+        super(persistedQueryCache);
+    }
+    
+    @Override
+    protected Optional<Object> getPersistedQueryId(ExecutionInput executionInput) {
+        Optional<Object> persistedQueryId = super.getPersistedQueryId(executionInput);
+        if (persistedQueryId.isPresent()) {
+            return persistedQueryId;
+        }
+        return Optional.of(sha256(executionInput.getQuery()));
+    }
+    
+    /**
+     * Computes the lowercase hex SHA-256 hash of a query, as Apollo clients do.
+     * 
+     * @param query The query text
+     * @return Hex-encoded hash
+     */
+    static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.banque_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.graphql.data.pagination.CursorEncoder;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+import org.springframework.graphql.data.pagination.EncodingCursorStrategy;
+import org.springframework.graphql.data.query.JsonKeysetCursorStrategy;
+import org.springframework.graphql.data.query.ScrollPositionCursorStrategy;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * GraphQL infrastructure configuration.
+ * 
+ * <p>Defines the cursor strategy used by connection queries. Keyset cursors are
+ * serialized as typed JSON; the default strategy only accepts date/time key values,
+ * so {@code Long} IDs are explicitly allowed here.</p>
+ * 
+ * <p>Also installs automatic persisted queries backed by a bounded cache of parsed
+ * and validated documents, and the query cost limits.</p>
+ * 
+ * @author MOHAMMED AMINE ELHARCHI
+ * @version 1.0
+ * @since 2025-01-01
+ */
+@Configuration
+public class GraphQLConfig {
+    
+    /**
+     * Cursor strategy encoding keyset scroll positions as Base64 JSON.
+     * Replaces the Spring Boot default bean.
+     * 
+     * @return Cursor strategy for Spring Data scroll positions
+     */
+    @Bean
+    public EncodingCursorStrategy<ScrollPosition> cursorStrategy() {
+        PolymorphicTypeValidator validator = BasicPolymorphicTypeValidator.builder()
+                .allowIfBaseType(Map.class)
+                .allowIfSubType(Long.class)
+                .allowIfSubType("java.time.")
+                .allowIfSubType(Date.class)
+                .build();
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        mapper.activateDefaultTyping(validator, ObjectMapper.DefaultTyping.NON_FINAL);
+        
+        CodecConfigurer codecs = ServerCodecConfigurer.create();
+        codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(mapper));
+        codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(mapper));
+        
+        return CursorStrategy.withEncoder(
+                new ScrollPositionCursorStrategy(new JsonKeysetCursorStrategy(codecs)),
+                CursorEncoder.base64());
+    }
+    
+    /**
+     * Document provider resolving persisted query hashes and caching parsed documents.
+     * 
+     * @param cacheSize Maximum number of cached documents
+     * @return Persisted query support backed by a bounded cache
+     */
+    @Bean
+    public PreparsedDocumentProvider preparsedDocumentProvider(
+            @Value("${banque.graphql.document-cache-size:500}") int cacheSize) {
+        return new DocumentCachingPersistedQuerySupport(new BoundedPersistedQueryCache(cacheSize));
+    }
+    
+    /**
+     * Registers the document provider on the GraphQL engine.
+     * 
+     * @param preparsedDocumentProvider The document provider
+     * @return Customizer applied to the GraphQlSource builder
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer preparsedDocumentCustomizer(PreparsedDocumentProvider preparsedDocumentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(preparsedDocumentProvider));
+    }
+    
+    /**
+     * Depth and cost limits checked before execution, with a per-client cost budget.
+     * Registered automatically by Spring Boot as an {@code Instrumentation} bean.
+     * 
+     * @return Query cost instrumentation
+     */
+    @Bean
+    public QueryCostInstrumentation queryCostInstrumentation(
+            @Value("${banque.graphql.max-depth:6}") int maxDepth,
+            @Value("${banque.graphql.max-cost:2000}") long maxCost,
+            @Value("${banque.graphql.default-list-size:50}") int defaultListSize,
+            @Value("${banque.graphql.max-characters:10000}") int maxCharacters,
+            @Value("${banque.graphql.max-tokens:2000}") int maxTokens,
+            @Value("${banque.graphql.client-cost-per-minute:20000}") long clientCostPerMinute,
+            @Value("${banque.graphql.max-clients:10000}") int maxClients) {
+        return new QueryCostInstrumentation(maxDepth, maxCost, defaultListSize, maxCharacters, maxTokens,
+                new ClientCostBudget(clientCostPerMinute, maxClients));
+    }
+}
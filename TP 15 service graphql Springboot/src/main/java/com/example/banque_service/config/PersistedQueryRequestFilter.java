@@ -0,0 +1,160 @@
+package com.example.banque_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Lets hash-only persisted query requests reach the GraphQL endpoint.
+ * 
+ * <p>The Spring GraphQL HTTP handler rejects requests without a {@code query}.
+ * For POST requests that carry a {@code persistedQuery} extension but no query,
+ * this filter adds the graphql-java persisted query marker, which
+ * {@link BoundedPersistedQueryCache} resolves from the hash. Other requests are
+ * passed through untouched.</p>
+ * 
+ * <p>A hash-only request carries no document, so only bodies of known length up
+ * to {@value #MAX_PERSISTED_QUERY_BODY} bytes are read and checked; larger or
+ * chunked requests are never buffered.</p>
+ * 
+ * @author MOHAMMED AMINE ELHARCHI
+ * @version 1.0
+ * @since 2025-01-01
+ */
+@Component
+public class PersistedQueryRequestFilter extends OncePerRequestFilter {
+    
+    private static final byte[] PERSISTED_QUERY_KEY = "\"persistedQuery\"".getBytes(StandardCharsets.UTF_8);
+    
+    /** Largest body that may be a hash-only request (hash, operation name and variables) */
+    static final int MAX_PERSISTED_QUERY_BODY = 16 * 1024;
+    
+    private final ObjectMapper objectMapper;
+    private final String graphQlPath;
+    
+    public PersistedQueryRequestFilter(ObjectMapper objectMapper,
+                                       @Value("${spring.graphql.http.path:/graphql}") String graphQlPath) {
+        this.objectMapper = objectMapper;
+        this.graphQlPath = graphQlPath;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        long contentLength = request.getContentLengthLong();
+        return !"POST".equals(request.getMethod()) || !graphQlPath.equals(request.getRequestURI())
+                || contentLength < 0 || contentLength > MAX_PERSISTED_QUERY_BODY;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        
+        // Only hash-only requests are rewritten; a cheap scan avoids parsing the others twice
+        if (contains(body, PERSISTED_QUERY_KEY)) {
+            Map<String, Object> payload = objectMapper.readValue(body, Map.class);
+            Object query = payload.get("query");
+            if (query == null || (query instanceof String text && text.isBlank())) {
+                payload.put("query", PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+                body = objectMapper.writeValueAsBytes(payload);
+            }
+        }
+        
+        filterChain.doFilter(new BodyRequestWrapper(request, body), response);
+    }
+    
+    private static boolean contains(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Request whose body is replaced by an in-memory copy.
+     */
+    private static class BodyRequestWrapper extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        BodyRequestWrapper(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                // The whole body is already in memory: it can be read at once, then it is finished
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
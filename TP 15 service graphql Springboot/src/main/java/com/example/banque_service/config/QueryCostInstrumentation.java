@@ -0,0 +1,192 @@
+package com.example.banque_service.config;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.parser.ParserOptions;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.util.TraversalControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Static cost and depth analysis performed before any data fetcher runs.
+ * 
+ * <p>The cost of a field is its weight multiplied by the list sizes of its
+ * ancestors. List sizes come from the {@code first}/{@code last} arguments of
+ * connection fields (capped like the controller does) or, for unbounded lists,
+ * from a configured default size. Root query fields weigh
+ * {@value #ROOT_FIELD_WEIGHT} since each one hits the database; other fields weigh 1.</p>
+ * 
+ * <p>Parsing and validation run before this analysis and grow with the size of
+ * the document, so the parser is first limited to {@code maxCharacters}
+ * characters and {@code maxTokens} tokens: an oversized query is cancelled
+ * while it is being read. The traversal then stops
+ * as soon as the depth or cost limit is exceeded, so a pathological query is
+ * rejected after visiting a bounded number of fields.
+ * Accepted queries are then charged to the caller's {@link ClientCostBudget},
+ * when the request carries a client ID.</p>
+ * 
+ * @author MOHAMMED AMINE ELHARCHI
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+    
+    private static final Logger logger = LoggerFactory.getLogger(QueryCostInstrumentation.class);
+    
+    /** GraphQLContext key holding the client ID, set by {@link ClientIdInterceptor} */
+    public static final String CLIENT_ID_KEY = "clientId";
+    
+    private static final int ROOT_FIELD_WEIGHT = 10;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private final int maxDepth;
+    private final long maxCost;
+    private final int defaultListSize;
+    private final ParserOptions parserOptions;
+    private final ClientCostBudget budget;
+    
+    /**
+     * @param maxDepth Maximum field nesting depth
+     * @param maxCost Maximum cost of a single operation
+     * @param defaultListSize Assumed size of lists without pagination arguments
+     * @param maxCharacters Maximum length of a single document
+     * @param maxTokens Maximum number of tokens parsed in a single document
+     * @param budget Per-client cost budget
+     */
+    public QueryCostInstrumentation(int maxDepth, long maxCost, int defaultListSize, int maxCharacters,
+                                    int maxTokens, ClientCostBudget budget) {
+        this.maxDepth = maxDepth;
+        this.maxCost = maxCost;
+        this.defaultListSize = defaultListSize;
+        this.parserOptions = ParserOptions.getDefaultOperationParserOptions()
+                .transform(options -> options.maxCharacters(maxCharacters).maxTokens(maxTokens));
+        this.budget = budget;
+    }
+    
+    /**
+     * Applies the size limits to the parsing of this operation.
+     */
+    @Override
+    public ExecutionInput instrumentExecutionInput(ExecutionInput executionInput,
+                                                   InstrumentationExecutionParameters parameters,
+                                                   InstrumentationState state) {
+        executionInput.getGraphQLContext().put(ParserOptions.class, parserOptions);
+        return executionInput;
+    }
+    
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        QueryCost queryCost = analyze(executionContext);
+        
+        if (queryCost.depthExceeded) {
+            logger.warn("Query rejected: depth exceeds {}", maxDepth);
+            throw new AbortExecutionException("Query depth exceeds the maximum of " + maxDepth);
+        }
+        if (queryCost.cost > maxCost) {
+            logger.warn("Query rejected: cost exceeds {}", maxCost);
+            throw new AbortExecutionException("Query cost exceeds the maximum of " + maxCost);
+        }
+        
+        GraphQLContext graphQLContext = executionContext.getGraphQLContext();
+        String clientId = graphQLContext.get(CLIENT_ID_KEY);
+        if (clientId != null && !budget.tryConsume(clientId, queryCost.cost)) {
+            logger.warn("Query throttled: client {} exhausted its cost budget", clientId);
+            throw new AbortExecutionException("Query cost budget exhausted, retry later");
+        }
+        
+        logger.debug("Query accepted: cost={}, client={}", queryCost.cost, clientId);
+        return super.beginExecuteOperation(parameters, state);
+    }
+    
+    /**
+     * Computes the depth and cost of the operation in a single pre-order traversal.
+     * 
+     * @param executionContext Context of the operation to analyze
+     * @return Cost of the operation, possibly partial if a limit was exceeded
+     */
+    QueryCost analyze(ExecutionContext executionContext) {
+        QueryTraverser traverser = QueryTraverser.newQueryTraverser()
+                .schema(executionContext.getGraphQLSchema())
+                .document(executionContext.getDocument())
+                .operationName(executionContext.getOperationDefinition().getName())
+                .coercedVariables(executionContext.getCoercedVariables())
+                .build();
+        
+        QueryCost queryCost = new QueryCost();
+        Map<QueryVisitorFieldEnvironment, Long> multipliers = new HashMap<>();
+        Map<QueryVisitorFieldEnvironment, Integer> depths = new HashMap<>();
+        
+        traverser.visitPreOrder(new QueryVisitorStub() {
+            @Override
+            public TraversalControl visitFieldWithControl(QueryVisitorFieldEnvironment env) {
+                if (env.getField().getName().startsWith("__")) {
+                    // Introspection is bounded by graphql-java itself
+                    return TraversalControl.ABORT;
+                }
+                QueryVisitorFieldEnvironment parent = env.getParentEnvironment();
+                int depth = parent == null ? 1 : depths.get(parent) + 1;
+                long parentMultiplier = parent == null ? 1 : multipliers.get(parent);
+                
+                queryCost.cost += parentMultiplier * (parent == null ? ROOT_FIELD_WEIGHT : 1);
+                if (depth > maxDepth) {
+                    queryCost.depthExceeded = true;
+                    return TraversalControl.QUIT;
+                }
+                if (queryCost.cost > maxCost) {
+                    return TraversalControl.QUIT;
+                }
+                
+                depths.put(env, depth);
+                multipliers.put(env, Math.min(parentMultiplier * listSize(env), maxCost + 1));
+                return TraversalControl.CONTINUE;
+            }
+        });
+        return queryCost;
+    }
+    
+    /**
+     * Estimates how many times the children of a field are resolved.
+     */
+    private long listSize(QueryVisitorFieldEnvironment env) {
+        Map<String, Object> arguments = env.getArguments();
+        if (arguments.containsKey("first") || arguments.containsKey("last")) {
+            Object size = arguments.get("first") != null ? arguments.get("first") : arguments.get("last");
+            return size instanceof Integer count ? Math.min(count, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        }
+        if (!(GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType()) instanceof GraphQLList)) {
+            return 1;
+        }
+        // Lists under a paginated field (connection edges) are already bounded by it
+        QueryVisitorFieldEnvironment parent = env.getParentEnvironment();
+        boolean paginated = parent != null
+                && (parent.getArguments().containsKey("first") || parent.getArguments().containsKey("last"));
+        return paginated ? 1 : defaultListSize;
+    }
+    
+    /**
+     * Result of the static analysis.
+     */
+    static class QueryCost {
+        long cost;
+        boolean depthExceeded;
+    }
+}
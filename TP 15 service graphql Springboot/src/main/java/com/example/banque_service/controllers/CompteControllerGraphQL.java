@@ -9,14 +9,22 @@ import com.example.banque_service.repositories.TransactionRepository;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +49,13 @@ public class CompteControllerGraphQL {
     private static final Logger logger = LoggerFactory.getLogger(CompteControllerGraphQL.class);
     private static final String DATE_FORMAT_PATTERN = "yyyy/MM/dd";
     private static final String ACCOUNT_NOT_FOUND_MESSAGE = "Account with ID %d not found";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Sort BY_ID = Sort.by("id");
+    
+    /** Immutable and thread-safe, shared by all requests (unlike SimpleDateFormat) */
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("uuuu/MM/dd")
+            .withResolverStyle(ResolverStyle.STRICT);
     
     private final CompteRepository compteRepository;
     private final TransactionRepository transactionRepository;
@@ -58,6 +73,21 @@ public class CompteControllerGraphQL {
         return accounts;
     }
     
+    /**
+     * Retrieves a page of accounts as a Relay connection, ordered by ID.
+     * 
+     * <p>Cursors encode a keyset position on the ID, so every page is read with an
+     * indexed range query whatever its depth. Page size is capped at {@value #MAX_PAGE_SIZE}.</p>
+     * 
+     * @param subrange Requested range (first/after or last/before)
+     * @return Window of accounts, adapted to a CompteConnection
+     */
+    @QueryMapping
+    public Window<Compte> accountsConnection(ScrollSubrange subrange) {
+        logger.debug("Fetching accounts connection: {}", subrange);
+        return compteRepository.findAllBy(scrollPosition(subrange), pageLimit(subrange), BY_ID);
+    }
+    
     /**
      * Retrieves a single account by its ID.
      * 
@@ -98,58 +128,104 @@ public class CompteControllerGraphQL {
     public Map<String, Object> totalBalanceStats() {
         logger.debug("Calculating total balance statistics");
         
-        long accountCount = compteRepository.count(); 
-        double totalBalance = compteRepository.sumBalances();
-        double averageBalance = accountCount > 0 ? totalBalance / accountCount : 0;
+        CompteRepository.BalanceStats stats = compteRepository.balanceStats();
         
-        logger.info("Balance stats: count={}, sum={}, average={}", accountCount, totalBalance, averageBalance);
+        logger.info("Balance stats: count={}, sum={}, average={}", stats.getCount(), stats.getSum(), stats.getAverage());
         
         return Map.of(
-            "count", accountCount,
-            "sum", totalBalance,
-            "average", averageBalance
+            "count", stats.getCount(),
+            "sum", stats.getSum(),
+            "average", stats.getAverage()
         );
     }
     
     // ==================== Transaction Operations ====================
     
     /**
-     * Records a new transaction for an account.
+     * Records a new transaction for an account and applies it to the balance.
+     * 
+     * <p>The balance is changed by a conditional UPDATE instead of a read-modify-write,
+     * so concurrent mutations on the same account stay consistent. The update and the
+     * transaction insert are committed together.</p>
      * 
      * @param transactionRequest The transaction data
      * @return The created Transaction entity
-     * @throws RuntimeException if account not found or date format invalid
+     * @throws RuntimeException if account not found, funds insufficient, amount or date format invalid
      */
     @MutationMapping
+    @Transactional
     public Transaction addTransaction(@Argument TransactionRequest transactionRequest) {
         logger.info("Adding transaction: {}", transactionRequest);
         
-        Compte account = compteRepository.findById(transactionRequest.getAccountId())
-            .orElseThrow(() -> {
-                logger.error("Cannot add transaction: account {} not found", transactionRequest.getAccountId());
-                return new RuntimeException(String.format(ACCOUNT_NOT_FOUND_MESSAGE, transactionRequest.getAccountId()));
-            });
+        Long accountId = transactionRequest.getAccountId();
+        if (transactionRequest.getTransactionType() == null || transactionRequest.getAmount() <= 0) {
+            logger.error("Invalid transaction: type={}, amount={}",
+                        transactionRequest.getTransactionType(), transactionRequest.getAmount());
+            throw new RuntimeException("Transaction type is required and amount must be positive");
+        }
+        Date transactionDate = parseDate(transactionRequest.getDate());
+        
+        double delta = transactionRequest.getTransactionType() == TypeTransaction.DEPOT
+                ? transactionRequest.getAmount()
+                : -transactionRequest.getAmount();
+        
+        if (compteRepository.adjustBalance(accountId, delta) == 0) {
+            if (!compteRepository.existsById(accountId)) {
+                logger.error("Cannot add transaction: account {} not found", accountId);
+                throw new RuntimeException(String.format(ACCOUNT_NOT_FOUND_MESSAGE, accountId));
+            }
+            logger.error("Cannot add transaction: insufficient funds on account {}", accountId);
+            throw new RuntimeException(String.format("Insufficient funds on account %d", accountId));
+        }
         
         Transaction newTransaction = new Transaction();
         newTransaction.setAmount(transactionRequest.getAmount());
         newTransaction.setTransactionType(transactionRequest.getTransactionType());
-        newTransaction.setAccount(account);
-        
-        try {
-            SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT_PATTERN);
-            dateFormat.setLenient(false);
-            Date parsedDate = dateFormat.parse(transactionRequest.getDate());
-            newTransaction.setTransactionDate(parsedDate);
-        } catch (ParseException e) {
-            logger.error("Invalid date format: {}. Expected: {}", transactionRequest.getDate(), DATE_FORMAT_PATTERN);
-            throw new RuntimeException("Invalid date format. Use " + DATE_FORMAT_PATTERN);
-        }
+        newTransaction.setTransactionDate(transactionDate);
+        // Loaded after the update so the returned account carries the new balance
+        newTransaction.setAccount(compteRepository.findById(accountId).orElseThrow());
         
         Transaction savedTransaction = transactionRepository.save(newTransaction);
         logger.info("Transaction added successfully: ID={}", savedTransaction.getId());
         return savedTransaction;
     }
     
+    /**
+     * Resolves the scroll position of a connection request, starting from the
+     * first (or, for {@code last} without cursor, the last) element.
+     */
+    private static ScrollPosition scrollPosition(ScrollSubrange subrange) {
+        return subrange.position().orElseGet(() -> subrange.forward()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.keyset().backward());
+    }
+    
+    /**
+     * Resolves the page size of a connection request, bounded by {@value #MAX_PAGE_SIZE}.
+     */
+    private static Limit pageLimit(ScrollSubrange subrange) {
+        return Limit.of(Math.min(subrange.count().orElse(DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE));
+    }
+    
+    /**
+     * Parses a transaction date using the shared strict formatter.
+     * 
+     * @param date Date in format yyyy/MM/dd
+     * @return The parsed date
+     * @throws RuntimeException if the date format is invalid
+     */
+    private static Date parseDate(String date) {
+        if (date != null) {
+            try {
+                return Date.valueOf(LocalDate.parse(date, DATE_FORMATTER));
+            } catch (DateTimeParseException e) {
+                // Reported below
+            }
+        }
+        logger.error("Invalid date format: {}. Expected: {}", date, DATE_FORMAT_PATTERN);
+        throw new RuntimeException("Invalid date format. Use " + DATE_FORMAT_PATTERN);
+    }
+    
     /**
      * Retrieves all transactions for a specific account.
      * 
@@ -185,6 +261,19 @@ public class CompteControllerGraphQL {
         return transactions;
     }
     
+    /**
+     * Retrieves a page of transactions as a Relay connection, ordered by ID.
+     * 
+     * @param subrange Requested range (first/after or last/before)
+     * @return Window of transactions, adapted to a TransactionConnection
+     * @see #accountsConnection(ScrollSubrange)
+     */
+    @QueryMapping
+    public Window<Transaction> transactionsConnection(ScrollSubrange subrange) {
+        logger.debug("Fetching transactions connection: {}", subrange);
+        return transactionRepository.findAllBy(scrollPosition(subrange), pageLimit(subrange), BY_ID);
+    }
+    
     /**
      * Calculates transaction statistics grouped by type.
      * 
@@ -194,17 +283,16 @@ public class CompteControllerGraphQL {
     public Map<String, Object> transactionStats() {
         logger.debug("Calculating transaction statistics");
         
-        long totalCount = transactionRepository.count();
-        double totalDeposits = transactionRepository.sumByType(TypeTransaction.DEPOT);
-        double totalWithdrawals = transactionRepository.sumByType(TypeTransaction.RETRELHARCHI);
+        TransactionRepository.TransactionStats stats =
+                transactionRepository.transactionStats(TypeTransaction.DEPOT, TypeTransaction.RETRELHARCHI);
         
         logger.info("Transaction stats: count={}, deposits={}, withdrawals={}", 
-                    totalCount, totalDeposits, totalWithdrawals);
+                    stats.getCount(), stats.getSumDeposits(), stats.getSumWithdrawals());
         
         return Map.of(
-            "count", totalCount,
-            "sumDeposits", totalDeposits,
-            "sumWithdrawals", totalWithdrawals
+            "count", stats.getCount(),
+            "sumDeposits", stats.getSumDeposits(),
+            "sumWithdrawals", stats.getSumWithdrawals()
         );
     }
 }
@@ -1,15 +1,21 @@
 package com.example.banque_service.repositories;
 
 import com.example.banque_service.entities.Compte;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for Compte (Account) entity persistence.
  * 
  * <p>Provides standard CRUD operations and custom queries for account management.
- * Supports balance aggregation across all accounts.</p>
+ * Supports balance aggregation across all accounts and atomic balance updates.</p>
  * 
  * @author MOHAMMED AMINE ELHARCHI
  * @version 1.0
@@ -19,13 +25,51 @@ import org.springframework.stereotype.Repository;
 public interface CompteRepository extends JpaRepository<Compte, Long> {
     
     /**
-     * Calculates the sum of all account balances in the system.
+     * Calculates count, sum and average of all account balances in a single query.
      * 
-     * <p>Uses JPQL aggregation to compute total across all accounts.
-     * Returns 0 if no accounts exist.</p>
+     * <p>Uses JPQL aggregation so the database returns one row.
+     * Sum and average are 0 if no accounts exist.</p>
      * 
-     * @return Total sum of all account balances
+     * @return Balance statistics across all accounts
      */
-    @Query("SELECT COALESCE(SUM(c.balance), 0) FROM Compte c")
-    double sumBalances();
+    @Query("SELECT COUNT(c) AS count, COALESCE(SUM(c.balance), 0) AS sum, " +
+           "COALESCE(AVG(c.balance), 0) AS average FROM Compte c")
+    BalanceStats balanceStats();
+    
+    /**
+     * Projection of the row returned by {@link #balanceStats()}.
+     */
+    interface BalanceStats {
+        long getCount();
+        double getSum();
+        double getAverage();
+    }
+    
+    /**
+     * Atomically adds a (possibly negative) amount to an account balance.
+     * 
+     * <p>The update is a single conditional UPDATE evaluated by the database, so
+     * concurrent transactions never lose each other's changes and a withdrawal
+     * cannot bring the balance below zero.</p>
+     * 
+     * @param id The account ID
+     * @param delta Amount to add (negative for withdrawals)
+     * @return 1 if the balance was updated, 0 if the account does not exist or funds are insufficient
+     */
+    @Modifying
+    @Query("UPDATE Compte c SET c.balance = c.balance + :delta WHERE c.id = :id AND c.balance + :delta >= 0")
+    int adjustBalance(@Param("id") Long id, @Param("delta") double delta);
+    
+    /**
+     * Returns a window of accounts after (or before) the given scroll position.
+     * 
+     * <p>With a keyset position the query filters on the sort columns instead of
+     * using an offset, so deep pages cost the same as the first one.</p>
+     * 
+     * @param position Scroll position decoded from the client cursor
+     * @param limit Maximum number of accounts in the window
+     * @param sort Sort order, must be unique (ends with the ID)
+     * @return Window of accounts with the information needed to build cursors
+     */
+    Window<Compte> findAllBy(ScrollPosition position, Limit limit, Sort sort);
 }
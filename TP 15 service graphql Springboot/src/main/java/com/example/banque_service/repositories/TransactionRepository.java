@@ -3,6 +3,10 @@ package com.example.banque_service.repositories;
 import com.example.banque_service.entities.Compte;
 import com.example.banque_service.entities.Transaction;
 import com.example.banque_service.enums.TypeTransaction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,7 +20,7 @@ import java.util.List;
  * <p>Provides transaction-specific queries including:</p>
  * <ul>
  *   <li>Finding transactions by account</li>
- *   <li>Aggregating transaction amounts by type</li>
+ *   <li>Aggregating transaction count and amounts by type</li>
  * </ul>
  * 
  * @author MOHAMMED AMINE ELHARCHI
@@ -35,14 +39,41 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByAccount(Compte account);
     
     /**
-     * Calculates the sum of transaction amounts for a specific transaction type.
+     * Calculates the transaction count and the amount sums per type in a single query.
      * 
-     * <p>Uses COALESCE to return 0 when no transactions of the specified type exist,
-     * preventing null pointer issues.</p>
+     * <p>Conditional sums replace one query per type. COALESCE returns 0 when
+     * no transactions of a type exist, preventing null pointer issues.</p>
      * 
-     * @param transactionType The type of transaction to sum (DEPOT or RETRELHARCHI)
-     * @return Total amount for the specified transaction type, or 0 if none exist
+     * @param deposit The deposit type (DEPOT)
+     * @param withdrawal The withdrawal type (RETRELHARCHI)
+     * @return Transaction statistics across all transactions
      */
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.transactionType = :type")
-    double sumByType(@Param("type") TypeTransaction transactionType);
+    @Query("SELECT COUNT(t) AS count, " +
+           "COALESCE(SUM(CASE WHEN t.transactionType = :deposit THEN t.amount ELSE 0 END), 0) AS sumDeposits, " +
+           "COALESCE(SUM(CASE WHEN t.transactionType = :withdrawal THEN t.amount ELSE 0 END), 0) AS sumWithdrawals " +
+           "FROM Transaction t")
+    TransactionStats transactionStats(@Param("deposit") TypeTransaction deposit,
+                                      @Param("withdrawal") TypeTransaction withdrawal);
+    
+    /**
+     * Projection of the row returned by {@link #transactionStats}.
+     */
+    interface TransactionStats {
+        long getCount();
+        double getSumDeposits();
+        double getSumWithdrawals();
+    }
+    
+    /**
+     * Returns a window of transactions after (or before) the given scroll position.
+     * 
+     * <p>With a keyset position the query filters on the sort columns instead of
+     * using an offset, so deep pages cost the same as the first one.</p>
+     * 
+     * @param position Scroll position decoded from the client cursor
+     * @param limit Maximum number of transactions in the window
+     * @param sort Sort order, must be unique (ends with the ID)
+     * @return Window of transactions with the information needed to build cursors
+     */
+    Window<Transaction> findAllBy(ScrollPosition position, Limit limit, Sort sort);
 }
@@ -0,0 +1,87 @@
+package com.example.banque_service;
+
+import com.example.banque_service.controllers.CompteControllerGraphQL;
+import com.example.banque_service.dto.TransactionRequest;
+import com.example.banque_service.entities.Compte;
+import com.example.banque_service.enums.TypeCompte;
+import com.example.banque_service.enums.TypeTransaction;
+import com.example.banque_service.repositories.CompteRepository;
+import com.example.banque_service.repositories.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class AddTransactionConcurrencyTest {
+
+	private static final int OPERATIONS = 2000;
+	private static final int THREADS = 16;
+	private static final double INITIAL_BALANCE = 100_000;
+	private static final double DEPOSIT = 10;
+	private static final double WITHDRAWAL = 5;
+
+	@Autowired
+	private CompteControllerGraphQL controller;
+
+	@Autowired
+	private CompteRepository compteRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Test
+	void parallelDepositsAndWithdrawalsKeepBalanceConsistent() throws Exception {
+		Long accountId = compteRepository.save(new Compte(null, INITIAL_BALANCE, new Date(), TypeCompte.COURANT)).getId();
+		long transactionsBefore = transactionRepository.count();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>(OPERATIONS);
+		long start = System.nanoTime();
+		for (int i = 0; i < OPERATIONS; i++) {
+			boolean deposit = i % 2 == 0;
+			futures.add(executor.submit(() -> controller.addTransaction(request(accountId,
+					deposit ? DEPOSIT : WITHDRAWAL,
+					deposit ? TypeTransaction.DEPOT : TypeTransaction.RETRELHARCHI))));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		System.out.printf("addTransaction: %d mutations on one account in %.2fs (%.0f mutations/s)%n",
+				OPERATIONS, seconds, OPERATIONS / seconds);
+
+		double expected = INITIAL_BALANCE + (OPERATIONS / 2) * DEPOSIT - (OPERATIONS / 2) * WITHDRAWAL;
+		assertEquals(expected, compteRepository.findById(accountId).orElseThrow().getBalance(), 0.001);
+		assertEquals(transactionsBefore + OPERATIONS, transactionRepository.count());
+	}
+
+	@Test
+	void withdrawalBeyondBalanceIsRejected() {
+		Long accountId = compteRepository.save(new Compte(null, 50, new Date(), TypeCompte.EPARGNE)).getId();
+
+		assertThrows(RuntimeException.class,
+				() -> controller.addTransaction(request(accountId, 80, TypeTransaction.RETRELHARCHI)));
+		assertEquals(50, compteRepository.findById(accountId).orElseThrow().getBalance(), 0.001);
+	}
+
+	private static TransactionRequest request(Long accountId, double amount, TypeTransaction type) {
+		TransactionRequest request = new TransactionRequest();
+		request.setAccountId(accountId);
+		request.setAmount(amount);
+		request.setDate("2025/01/15");
+		request.setTransactionType(type);
+		return request;
+	}
+}
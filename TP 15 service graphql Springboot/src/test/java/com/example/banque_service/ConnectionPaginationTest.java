@@ -0,0 +1,140 @@
+package com.example.banque_service;
+
+import com.example.banque_service.entities.Compte;
+import com.example.banque_service.enums.TypeCompte;
+import com.example.banque_service.repositories.CompteRepository;
+import com.example.banque_service.repositories.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:banque-paging")
+@AutoConfigureGraphQlTester
+class ConnectionPaginationTest {
+
+	/** 1 000 000 for the full measurement: -Dbenchmark.rows=1000000 */
+	private static final int BENCHMARK_ROWS = Integer.getInteger("benchmark.rows", 20_000);
+	private static final int BENCHMARK_RUNS = 20;
+	private static final int PAGE_SIZE = 50;
+
+	private static final String ACCOUNTS_PAGE = """
+			query($first: Int, $after: String) {
+			  accountsConnection(first: $first, after: $after) {
+			    edges { cursor node { id } }
+			    pageInfo { hasNextPage endCursor }
+			  }
+			}""";
+
+	private static final String TRANSACTIONS_PAGE = """
+			query($first: Int, $after: String) {
+			  transactionsConnection(first: $first, after: $after) {
+			    edges { node { id amount } }
+			    pageInfo { hasNextPage endCursor }
+			  }
+			}""";
+
+	@Autowired
+	private GraphQlTester graphQlTester;
+
+	@Autowired
+	private CursorStrategy<ScrollPosition> cursorStrategy;
+
+	@Autowired
+	private CompteRepository compteRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void accountsConnectionWalksAllPagesInIdOrder() {
+		for (int i = 0; i < 7; i++) {
+			compteRepository.save(new Compte(null, i * 10, new Date(), TypeCompte.COURANT));
+		}
+
+		List<String> ids = new ArrayList<>();
+		String after = null;
+		boolean hasNextPage = true;
+		while (hasNextPage) {
+			GraphQlTester.Response response = graphQlTester.document(ACCOUNTS_PAGE)
+					.variable("first", 3)
+					.variable("after", after)
+					.execute();
+			ids.addAll(response.path("accountsConnection.edges[*].node.id").entityList(String.class).get());
+			hasNextPage = response.path("accountsConnection.pageInfo.hasNextPage").entity(Boolean.class).get();
+			after = response.path("accountsConnection.pageInfo.endCursor").entity(String.class).get();
+		}
+
+		List<String> expected = compteRepository.findAll(Sort.by("id")).stream()
+				.map(compte -> String.valueOf(compte.getId()))
+				.toList();
+		assertEquals(expected, ids);
+	}
+
+	@Test
+	void deepPageLatencyMatchesFirstPage() {
+		Long accountId = compteRepository.save(new Compte(null, 0, new Date(), TypeCompte.EPARGNE)).getId();
+		jdbcTemplate.update("INSERT INTO transaction (amount, transaction_date, transaction_type, account_id) " +
+				"SELECT MOD(X, 100) + 1, CURRENT_DATE, 'DEPOT', ? FROM SYSTEM_RANGE(1, ?)", accountId, BENCHMARK_ROWS);
+		long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM transaction", Long.class);
+		long deepId = maxId - PAGE_SIZE * 2L;
+		String deepCursor = cursorStrategy.toCursor(ScrollPosition.forward(Map.of("id", deepId)));
+
+		double firstPageMillis = timeTransactionsPage(null);
+		double deepPageMillis = timeTransactionsPage(deepCursor);
+		double keysetQueryMillis = timeQuery(() -> transactionRepository.findAllBy(
+				ScrollPosition.forward(Map.of("id", deepId)), Limit.of(PAGE_SIZE), Sort.by("id")));
+		int deepPage = (int) (transactionRepository.count() / PAGE_SIZE) - 2;
+		double offsetQueryMillis = timeQuery(() -> transactionRepository.findAll(
+				PageRequest.of(deepPage, PAGE_SIZE, Sort.by("id"))));
+
+		System.out.printf("transactionsConnection over %d rows: first page %.2f ms, deep page %.2f ms " +
+				"(repository: keyset %.2f ms, offset %.2f ms)%n", BENCHMARK_ROWS,
+				firstPageMillis, deepPageMillis, keysetQueryMillis, offsetQueryMillis);
+
+		List<Long> deepIds = graphQlTester.document(TRANSACTIONS_PAGE)
+				.variable("first", PAGE_SIZE)
+				.variable("after", deepCursor)
+				.execute()
+				.path("transactionsConnection.edges[*].node.id").entityList(Long.class).get();
+		assertEquals(PAGE_SIZE, deepIds.size());
+		assertTrue(deepIds.get(0) > deepId);
+	}
+
+	private double timeTransactionsPage(String after) {
+		return timeQuery(() -> graphQlTester.document(TRANSACTIONS_PAGE)
+				.variable("first", PAGE_SIZE)
+				.variable("after", after)
+				.execute()
+				.path("transactionsConnection.edges").entityList(Object.class).hasSize(PAGE_SIZE));
+	}
+
+	private static double timeQuery(Runnable query) {
+		for (int i = 0; i < BENCHMARK_RUNS; i++) {
+			query.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < BENCHMARK_RUNS; i++) {
+			query.run();
+		}
+		return (System.nanoTime() - start) / 1e6 / BENCHMARK_RUNS;
+	}
+}
@@ -0,0 +1,180 @@
+package com.example.banque_service;
+
+import com.example.banque_service.config.PersistedQueryRequestFilter;
+import com.example.banque_service.entities.Compte;
+import com.example.banque_service.entities.Transaction;
+import com.example.banque_service.enums.TypeCompte;
+import com.example.banque_service.enums.TypeTransaction;
+import com.example.banque_service.repositories.CompteRepository;
+import com.example.banque_service.repositories.TransactionRepository;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.datasource.url=jdbc:h2:mem:banque-apq")
+class PersistedQueryTest {
+
+	private static final int BENCHMARK_REQUESTS = 2000;
+
+	private static final String ACCOUNT_TRANSACTIONS = """
+			query($id: ID) {
+			  accountTransactions(id: $id) {
+			    id amount transactionDate transactionType
+			    account { id balance accountType }
+			  }
+			}""";
+
+	/** Same operation with a different text, so its hash is unknown to the shared document cache */
+	private static final String PERSISTED_ACCOUNT_TRANSACTIONS = ACCOUNT_TRANSACTIONS + "\n# persisted";
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private GraphQlSource graphQlSource;
+
+	@Autowired
+	private PersistedQueryRequestFilter persistedQueryRequestFilter;
+
+	@Autowired
+	private CompteRepository compteRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void hashOnlyRequestIsServedOnceQueryIsRegistered() throws Exception {
+		Long accountId = createAccountWithTransactions(3);
+		String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+				.digest(PERSISTED_ACCOUNT_TRANSACTIONS.getBytes(StandardCharsets.UTF_8)));
+		Map<String, Object> extensions = Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+		Map<String, Object> variables = Map.of("id", accountId);
+
+		Map<String, Object> miss = post(Map.of("variables", variables, "extensions", extensions));
+		List<Map<String, Object>> errors = (List<Map<String, Object>>) miss.get("errors");
+		assertEquals("PersistedQueryNotFound", errors.get(0).get("message"));
+
+		Map<String, Object> register = post(Map.of("query", PERSISTED_ACCOUNT_TRANSACTIONS,
+				"variables", variables, "extensions", extensions));
+		assertEquals(3, transactions(register).size());
+
+		Map<String, Object> hit = post(Map.of("variables", variables, "extensions", extensions));
+		assertEquals(3, transactions(hit).size());
+	}
+
+	@Test
+	void hashOnlyBodyIsRewrittenAndReadableWithAListener() throws Exception {
+		MockHttpServletRequest request = graphQlPost("{\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"abc\"}}}");
+		MockFilterChain chain = new MockFilterChain();
+		persistedQueryRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		ServletInputStream input = chain.getRequest().getInputStream();
+		AtomicBoolean allDataRead = new AtomicBoolean();
+		input.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() {
+			}
+
+			@Override
+			public void onAllDataRead() {
+				allDataRead.set(true);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+		});
+		assertTrue(allDataRead.get());
+		String body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+		assertTrue(body.contains(PersistedQuerySupport.PERSISTED_QUERY_MARKER), body);
+	}
+
+	@Test
+	void largeBodiesAreNotBuffered() throws Exception {
+		MockHttpServletRequest request = graphQlPost("{\"query\":\"{ allAccounts { id } }" + " ".repeat(20_000) + "\"}");
+		MockFilterChain chain = new MockFilterChain();
+		persistedQueryRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		assertSame(request, chain.getRequest());
+	}
+
+	private static MockHttpServletRequest graphQlPost(String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+		request.setContentType("application/json");
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+	@Test
+	void documentCachingThroughput() {
+		Long accountId = createAccountWithTransactions(10);
+		GraphQL cached = graphQlSource.graphQl();
+		GraphQL uncached = cached.transform(builder -> builder.preparsedDocumentProvider(NoOpPreparsedDocumentProvider.INSTANCE));
+
+		double uncachedRate = throughput(uncached, accountId);
+		double cachedRate = throughput(cached, accountId);
+
+		System.out.printf("accountTransactions: %.0f req/s without document cache, %.0f req/s with document cache%n",
+				uncachedRate, cachedRate);
+	}
+
+	private double throughput(GraphQL graphQL, Long accountId) {
+		ExecutionInput input = ExecutionInput.newExecutionInput()
+				.query(ACCOUNT_TRANSACTIONS)
+				.variables(Map.of("id", accountId))
+				.build();
+		for (int i = 0; i < BENCHMARK_REQUESTS / 5; i++) {
+			graphQL.execute(input);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < BENCHMARK_REQUESTS; i++) {
+			ExecutionResult result = graphQL.execute(input);
+			assertTrue(result.getErrors().isEmpty());
+		}
+		return BENCHMARK_REQUESTS / ((System.nanoTime() - start) / 1e9);
+	}
+
+	private Long createAccountWithTransactions(int count) {
+		Compte account = compteRepository.save(new Compte(null, 1000, new Date(), TypeCompte.COURANT));
+		for (int i = 0; i < count; i++) {
+			transactionRepository.save(new Transaction(null, 10 + i, new Date(), TypeTransaction.DEPOT, account));
+		}
+		return account.getId();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> post(Map<String, Object> body) {
+		return restTemplate.postForObject("/graphql", body, Map.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> transactions(Map<String, Object> response) {
+		return (List<Object>) ((Map<String, Object>) response.get("data")).get("accountTransactions");
+	}
+}
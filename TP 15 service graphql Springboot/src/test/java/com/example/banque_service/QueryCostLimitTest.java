@@ -0,0 +1,136 @@
+package com.example.banque_service;
+
+import com.example.banque_service.config.ClientCostBudget;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:banque-cost",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"banque.graphql.max-depth=4",
+		"banque.graphql.client-cost-per-minute=1000",
+		// Clients are told apart by their address, taken from X-Forwarded-For as behind a proxy
+		"server.forward-headers-strategy=native"
+})
+class QueryCostLimitTest {
+
+	/** Cost 10 + 50 x 5 = 260 */
+	private static final String NORMAL_QUERY = "{ allAccounts { id balance creationDate accountType } allTransactions { id } }";
+
+	/** Depth 5: transactionsConnection > edges > node > account > id */
+	private static final String DEEP_QUERY = "{ transactionsConnection(first: 5) { edges { node { account { id } } } } }";
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void normalQueriesAreExecuted() {
+		Map<String, Object> response = post("10.0.0.1", NORMAL_QUERY);
+		assertNull(response.get("errors"));
+		assertNotNull(response.get("data"));
+	}
+
+	@Test
+	void tooDeepQueryIsRejectedBeforeExecution() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		assertError(post("10.0.0.2", DEEP_QUERY), "Query depth exceeds the maximum of 4");
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void pathologicalQueryIsRejectedInBoundedTime() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		// 10 aliases: rejected by the cost analysis; 1000 aliases (60 KB): parsing is cancelled after max-characters
+		long smallMillis = timeRejection(aliasedTransactionsQuery(10), "Query cost exceeds the maximum of 2000");
+		long hugeMillis = timeRejection(aliasedTransactionsQuery(1000), "More than 10,000 characters");
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		System.out.printf("Rejection: %d ms for 10 aliased lists, %d ms for 1000 aliased lists%n",
+				smallMillis, hugeMillis);
+		assertTrue(hugeMillis <= 2 * smallMillis + 20,
+				"Rejecting a 100x larger query should not take much longer: " + hugeMillis + " ms vs " + smallMillis + " ms");
+	}
+
+	@Test
+	void clientBudgetThrottlesOnlyThatClient() {
+		for (int i = 0; i < 3; i++) {
+			assertNull(post("10.0.0.3", NORMAL_QUERY).get("errors"));
+		}
+		assertError(post("10.0.0.3", NORMAL_QUERY), "Query cost budget exhausted, retry later");
+		assertNull(post("10.0.0.4", NORMAL_QUERY).get("errors"));
+	}
+
+	@Test
+	void clientBudgetTracksABoundedNumberOfClients() {
+		ClientCostBudget budget = new ClientCostBudget(1000, 100);
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(budget.tryConsume("client-" + i, 500));
+		}
+		assertEquals(100, budget.size());
+
+		// The most recent clients are still tracked and keep their debt
+		assertTrue(budget.tryConsume("client-9999", 500));
+		assertFalse(budget.tryConsume("client-9999", 500));
+	}
+
+	/**
+	 * Best of 5 rejections, so that the first request does not measure warm-up.
+	 */
+	private long timeRejection(String query, String message) {
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			long start = System.nanoTime();
+			assertError(post("10.0.1." + i, query), message);
+			best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+		}
+		return best;
+	}
+
+	private static String aliasedTransactionsQuery(int aliases) {
+		StringBuilder query = new StringBuilder("{");
+		for (int i = 0; i < aliases; i++) {
+			query.append(" t").append(i).append(": allTransactions { id amount account { id balance } }");
+		}
+		return query.append(" }").toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void assertError(Map<String, Object> response, String message) {
+		List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+		assertNotNull(errors);
+		assertTrue(((String) errors.get(0).get("message")).contains(message), () -> errors.get(0).get("message").toString());
+		assertTrue(response.get("data") == null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> post(String clientAddress, String query) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.set("X-Forwarded-For", clientAddress);
+		return restTemplate.postForObject("/graphql", new HttpEntity<>(Map.of("query", query), headers), Map.class);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.banque_service;
+
+import com.example.banque_service.controllers.CompteControllerGraphQL;
+import com.example.banque_service.entities.Compte;
+import com.example.banque_service.enums.TypeCompte;
+import com.example.banque_service.repositories.CompteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:banque-stats",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class StatisticsQueryTest {
+
+	/** 1 000 000 for the full measurement: -Dbenchmark.rows=1000000 */
+	private static final int BENCHMARK_ROWS = Integer.getInteger("benchmark.rows", 20_000);
+	private static final int BENCHMARK_RUNS = 20;
+
+	@Autowired
+	private CompteControllerGraphQL controller;
+
+	@Autowired
+	private CompteRepository compteRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void eachStatisticsResolverRunsOneStatement() {
+		compteRepository.save(new Compte(null, 120, new Date(), TypeCompte.COURANT));
+
+		statistics.clear();
+		Map<String, Object> balanceStats = controller.totalBalanceStats();
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(compteRepository.count(), balanceStats.get("count"));
+
+		statistics.clear();
+		controller.transactionStats();
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void transactionStatsLatency() {
+		Long accountId = compteRepository.save(new Compte(null, 0, new Date(), TypeCompte.EPARGNE)).getId();
+		jdbcTemplate.update("INSERT INTO transaction (amount, transaction_date, transaction_type, account_id) " +
+				"SELECT MOD(X, 100) + 1, CURRENT_DATE, CASEWHEN(MOD(X, 2) = 0, 'DEPOT', 'RETRELHARCHI'), ? " +
+				"FROM SYSTEM_RANGE(1, ?)", accountId, BENCHMARK_ROWS);
+
+		controller.transactionStats();
+		long start = System.nanoTime();
+		Map<String, Object> stats = null;
+		for (int i = 0; i < BENCHMARK_RUNS; i++) {
+			stats = controller.transactionStats();
+		}
+		double averageMillis = (System.nanoTime() - start) / 1e6 / BENCHMARK_RUNS;
+
+		System.out.printf("transactionStats over %s transactions: %.1f ms/call%n", stats.get("count"), averageMillis);
+		assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Long.class), stats.get("count"));
+	}
+}
@@ -34,7 +34,7 @@ public class Grpc2Application {
      * @param args Command line arguments
      */
     public static void main(String[] args) {
-        SpringApplication.run(Grpc2Application.java, args);
+        SpringApplication.run(Grpc2Application.class, args);
         logger.info("gRPC Account Service started successfully");
         logger.info("gRPC server running on default port: 9090");
     }
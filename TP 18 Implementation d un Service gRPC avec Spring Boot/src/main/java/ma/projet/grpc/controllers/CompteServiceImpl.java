@@ -1,13 +1,18 @@
 package ma.projet.grpc.controllers;
 
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import ma.projet.grpc.repositories.CompteRepository;
 import ma.projet.grpc.services.CompteService;
 import ma.projet.grpc.stubs.*;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +37,10 @@ public class CompteServiceImpl extends CompteServiceGrpc.CompteServiceImplBase {
     
     private static final Logger logger = LoggerFactory.getLogger(CompteServiceImpl.class);
     private static final String ACCOUNT_NOT_FOUND_MSG = "Account not found with ID: %s";
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int BULK_BATCH_SIZE = 1000;
     
     private final CompteService compteService;
 
@@ -70,6 +79,63 @@ public class CompteServiceImpl extends CompteServiceGrpc.CompteServiceImplBase {
         }
     }
 
+    /**
+     * Streams all accounts, reading them from the database in chunks.
+     *
+     * <p>Messages are only produced while the transport is ready, so a slow client
+     * applies back-pressure instead of letting the server buffer the whole table.</p>
+     *
+     * @param request Empty request (no parameters needed)
+     * @param responseObserver Stream observer receiving one message per account
+     */
+    @Override
+    public void allComptesStream(GetAllComptesRequest request, StreamObserver<Compte> responseObserver) {
+        logger.info("gRPC request: streamAllAccounts");
+        ServerCallStreamObserver<Compte> serverObserver = (ServerCallStreamObserver<Compte>) responseObserver;
+        serverObserver.setOnReadyHandler(new ChunkedComptePump(serverObserver));
+    }
+
+    /**
+     * Returns one page of accounts, ordered by ID.
+     * The returned token is the ID of the last account and resumes the next page after it.
+     *
+     * @param request Request containing page size and page token
+     * @param responseObserver Stream observer for sending response
+     */
+    @Override
+    public void comptesPage(GetComptesPageRequest request, StreamObserver<GetComptesPageResponse> responseObserver) {
+        try {
+            int pageSize = request.getPageSize() > 0
+                    ? Math.min(request.getPageSize(), MAX_PAGE_SIZE)
+                    : DEFAULT_PAGE_SIZE;
+            logger.info("gRPC request: getAccountsPage with size: {}", pageSize);
+
+            // Fetch one extra row to know whether another page exists
+            List<ma.projet.grpc.entities.Compte> accounts =
+                    compteService.findComptesAfter(request.getPageToken(), pageSize + 1);
+            boolean hasMore = accounts.size() > pageSize;
+            if (hasMore) {
+                accounts = accounts.subList(0, pageSize);
+            }
+
+            GetComptesPageResponse.Builder response = GetComptesPageResponse.newBuilder();
+            accounts.forEach(account -> response.addComptes(convertToGrpcCompte(account)));
+            if (hasMore) {
+                response.setNextPageToken(accounts.get(accounts.size() - 1).getId());
+            }
+
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+
+            logger.info("Returned page of {} accounts", accounts.size());
+        } catch (Exception e) {
+            logger.error("Error fetching accounts page", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Error fetching accounts page: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+
     /**
      * Finds a specific account by ID.
      * 
@@ -119,15 +185,11 @@ public class CompteServiceImpl extends CompteServiceGrpc.CompteServiceImplBase {
         try {
             logger.info("gRPC request: getTotalBalanceStats");
             
-            List<ma.projet.grpc.entities.Compte> accounts = compteService.findAllComptes();
-            int accountCount = accounts.size();
-            
-            // Calculate sum using stream for better readability
-            float totalBalance = (float) accounts.stream()
-                    .mapToDouble(ma.projet.grpc.entities.Compte::getBalance)
-                    .sum();
-            
-            float averageBalance = accountCount > 0 ? totalBalance / accountCount : 0;
+            // Aggregate in the database instead of loading every account
+            CompteRepository.SoldeAggregate aggregate = compteService.getSoldeStats();
+            int accountCount = (int) aggregate.getAccountCount();
+            float totalBalance = (float) aggregate.getTotalBalance();
+            float averageBalance = (float) aggregate.getAverageBalance();
 
             SoldeStats stats = SoldeStats.newBuilder()
                     .setCount(accountCount)
@@ -161,7 +223,7 @@ public class CompteServiceImpl extends CompteServiceGrpc.CompteServiceImplBase {
     @Override
     public void saveCompte(SaveCompteRequest request, StreamObserver<SaveCompteResponse> responseObserver) {
         try {
-            Compte grpcAccountRequest = request.getCompte();
+            CompteRequest grpcAccountRequest = request.getCompte();
             logger.info("gRPC request: saveAccount with balance: {}", grpcAccountRequest.getSolde());
 
             // Create JPA entity from Protobuf message
@@ -192,6 +254,22 @@ public class CompteServiceImpl extends CompteServiceGrpc.CompteServiceImplBase {
         }
     }
 
+    /**
+     * Creates accounts received on a client stream.
+     *
+     * <p>Accounts are accumulated and persisted in batches, each batch in its own
+     * transaction. A failed batch does not roll back the previous ones; its items
+     * are reported in the summary along with invalid requests.</p>
+     *
+     * @param responseObserver Stream observer receiving the summary once the client completes
+     * @return Observer consuming the client stream
+     */
+    @Override
+    public StreamObserver<SaveCompteRequest> saveComptesBulk(StreamObserver<SaveComptesBulkResponse> responseObserver) {
+        logger.info("gRPC request: bulkSaveAccounts");
+        return new BulkSaveObserver(responseObserver);
+    }
+
     /**
      * Converts a JPA Compte entity to a Protobuf Compte message.
      * Helper method to reduce code duplication.
@@ -207,4 +285,134 @@ public class CompteServiceImpl extends CompteServiceGrpc.CompteServiceImplBase {
                 .setType(TypeCompte.valueOf(account.getAccountType()))
                 .build();
     }
+
+    /**
+     * Converts a Protobuf CompteRequest message to a new JPA Compte entity.
+     *
+     * @param request Protobuf request to convert
+     * @return Unsaved JPA entity
+     */
+    private ma.projet.grpc.entities.Compte convertToEntity(CompteRequest request) {
+        ma.projet.grpc.entities.Compte account = new ma.projet.grpc.entities.Compte();
+        account.setBalance(request.getSolde());
+        account.setCreationDate(request.getDateCreation());
+        account.setAccountType(request.getType().name());
+        return account;
+    }
+
+    /**
+     * On-ready handler feeding the account stream.
+     *
+     * <p>gRPC invokes it whenever the call becomes writable; it sends accounts until the
+     * outbound buffer is full, loading the next chunk (keyset on ID) only when the current
+     * one is exhausted. At most one chunk is held in memory at a time.</p>
+     */
+    private class ChunkedComptePump implements Runnable {
+
+        private final ServerCallStreamObserver<Compte> observer;
+        private Iterator<ma.projet.grpc.entities.Compte> chunk = Collections.emptyIterator();
+        private String lastId = "";
+        private long sent;
+        private boolean done;
+
+        ChunkedComptePump(ServerCallStreamObserver<Compte> observer) {
+            this.observer = observer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!done && !observer.isCancelled() && observer.isReady()) {
+                    if (!chunk.hasNext()) {
+                        List<ma.projet.grpc.entities.Compte> next =
+                                compteService.findComptesAfter(lastId, STREAM_CHUNK_SIZE);
+                        if (next.isEmpty()) {
+                            done = true;
+                            observer.onCompleted();
+                            logger.info("Streamed {} accounts", sent);
+                            return;
+                        }
+                        chunk = next.iterator();
+                    }
+                    ma.projet.grpc.entities.Compte account = chunk.next();
+                    lastId = account.getId();
+                    observer.onNext(convertToGrpcCompte(account));
+                    sent++;
+                }
+            } catch (Exception e) {
+                done = true;
+                logger.error("Error streaming accounts", e);
+                observer.onError(Status.INTERNAL
+                        .withDescription("Error streaming accounts: " + e.getMessage())
+                        .asRuntimeException());
+            }
+        }
+    }
+
+    /**
+     * Client-stream observer of {@link #saveComptesBulk}.
+     * Holds at most {@value #BULK_BATCH_SIZE} pending accounts between two flushes.
+     */
+    private class BulkSaveObserver implements StreamObserver<SaveCompteRequest> {
+
+        private final StreamObserver<SaveComptesBulkResponse> responseObserver;
+        private final SaveComptesBulkResponse.Builder summary = SaveComptesBulkResponse.newBuilder();
+        private final List<ma.projet.grpc.entities.Compte> pending = new ArrayList<>(BULK_BATCH_SIZE);
+        private final List<Integer> pendingIndexes = new ArrayList<>(BULK_BATCH_SIZE);
+        private int received;
+        private int saved;
+
+        BulkSaveObserver(StreamObserver<SaveComptesBulkResponse> responseObserver) {
+            this.responseObserver = responseObserver;
+        }
+
+        @Override
+        public void onNext(SaveCompteRequest request) {
+            int index = received++;
+            CompteRequest compte = request.getCompte();
+            if (compte.getDateCreation().isEmpty() || compte.getType() == TypeCompte.UNRECOGNIZED) {
+                addFailure(index, "Invalid account: creation date and type are required");
+                return;
+            }
+            pending.add(convertToEntity(compte));
+            pendingIndexes.add(index);
+            if (pending.size() >= BULK_BATCH_SIZE) {
+                flushPending();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.warn("Bulk save cancelled by client after {} accounts ({} saved)", received, saved);
+        }
+
+        @Override
+        public void onCompleted() {
+            flushPending();
+            responseObserver.onNext(summary.setReceived(received).setSaved(saved).build());
+            responseObserver.onCompleted();
+            logger.info("Bulk save completed: received={}, saved={}, failed={}",
+                       received, saved, summary.getFailuresCount());
+        }
+
+        private void flushPending() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                saved += compteService.saveComptes(pending).size();
+            } catch (Exception e) {
+                logger.error("Error saving batch of {} accounts", pending.size(), e);
+                pendingIndexes.forEach(index -> addFailure(index, "Error saving account: " + e.getMessage()));
+            }
+            pending.clear();
+            pendingIndexes.clear();
+        }
+
+        private void addFailure(int index, String message) {
+            summary.addFailures(SaveCompteFailure.newBuilder()
+                    .setIndex(index)
+                    .setMessage(message));
+        }
+    }
 }
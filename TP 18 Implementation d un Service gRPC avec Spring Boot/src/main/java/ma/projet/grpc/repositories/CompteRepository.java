@@ -1,9 +1,13 @@
 package ma.projet.grpc.repositories;
 
 import ma.projet.grpc.entities.Compte;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Repository interface for Compte (Account) entity persistence.
  * 
@@ -24,4 +28,33 @@ public interface CompteRepository extends JpaRepository<Compte, String> {
     // - deleteById(String id): Delete account by ID
     // - count(): Count total accounts
     // - existsById(String id): Check if account exists
+
+    /**
+     * Keyset pagination: returns the accounts whose ID follows {@code lastId}, ordered by ID.
+     * Unlike an offset, the cost of a page does not grow with its position.
+     *
+     * @param lastId ID of the last account already read (empty string for the first chunk)
+     * @param pageable Limits the number of returned accounts
+     * @return Next chunk of accounts
+     */
+    List<Compte> findByIdGreaterThanOrderByIdAsc(String lastId, Pageable pageable);
+
+    /**
+     * Computes count, sum and average of all balances in a single aggregate query.
+     * The database returns one row, so no account is loaded into memory.
+     *
+     * @return Aggregated balance statistics (zeros when there is no account)
+     */
+    @Query("SELECT COUNT(c) AS accountCount, COALESCE(SUM(c.balance), 0) AS totalBalance, " +
+           "COALESCE(AVG(c.balance), 0) AS averageBalance FROM Compte c")
+    SoldeAggregate aggregateSoldes();
+
+    /**
+     * Projection of the single row returned by {@link #aggregateSoldes()}.
+     */
+    interface SoldeAggregate {
+        long getAccountCount();
+        double getTotalBalance();
+        double getAverageBalance();
+    }
 }
@@ -4,7 +4,9 @@ import ma.projet.grpc.entities.Compte;
 import ma.projet.grpc.repositories.CompteRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -41,6 +43,20 @@ public class CompteService {
         return accounts;
     }
 
+    /**
+     * Retrieves a chunk of accounts following the given ID, in ID order.
+     * Used to stream or page through accounts without loading the whole table.
+     *
+     * @param lastId ID of the last account already read, or null/empty to start from the beginning
+     * @param limit Maximum number of accounts to return
+     * @return List of at most {@code limit} Compte entities
+     */
+    public List<Compte> findComptesAfter(String lastId, int limit) {
+        String cursor = lastId == null ? "" : lastId;
+        logger.debug("Fetching {} accounts after ID: '{}'", limit, cursor);
+        return compteRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, limit));
+    }
+
     /**
      * Finds a specific account by its ID.
      * 
@@ -77,6 +93,22 @@ public class CompteService {
         return savedAccount;
     }
 
+    /**
+     * Saves a batch of new accounts in a single transaction.
+     * Inserts are flushed together so Hibernate can send them as JDBC batches.
+     *
+     * @param comptes The accounts to save
+     * @return The saved Compte entities
+     */
+    @Transactional
+    public List<Compte> saveComptes(List<Compte> comptes) {
+        logger.debug("Saving batch of {} accounts", comptes.size());
+        List<Compte> savedAccounts = compteRepository.saveAll(comptes);
+        compteRepository.flush();
+        logger.info("Batch of {} accounts saved successfully", savedAccounts.size());
+        return savedAccounts;
+    }
+
     /**
      * Deletes an account by its ID.
      * 
@@ -92,6 +124,17 @@ public class CompteService {
         }
     }
 
+    /**
+     * Computes balance statistics (count, sum, average) in the database.
+     *
+     * @return Aggregated balance statistics
+     */
+    public CompteRepository.SoldeAggregate getSoldeStats() {
+        CompteRepository.SoldeAggregate stats = compteRepository.aggregateSoldes();
+        logger.debug("Balance stats aggregated: count={}, sum={}", stats.getAccountCount(), stats.getTotalBalance());
+        return stats;
+    }
+
     /**
      * Counts the total number of accounts.
      * 
@@ -0,0 +1,89 @@
+package ma.projet.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import ma.projet.grpc.repositories.CompteRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Common setup of the gRPC tests: in-process server and channel (profile "test"),
+ * direct SQL inserts of test accounts and access to Hibernate statistics.
+ *
+ * <p>Row counts are small by default so the suite stays fast; the full measurements
+ * are run with {@code -Dbenchmark.rows=...}.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+abstract class AbstractCompteGrpcTests {
+
+    @Autowired
+    protected CompteRepository compteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected ManagedChannel channel;
+
+    @BeforeEach
+    void openChannel() {
+        compteRepository.deleteAllInBatch();
+        channel = InProcessChannelBuilder.forName("comptes-test").usePlaintext().build();
+    }
+
+    @AfterEach
+    void closeChannel() {
+        channel.shutdownNow();
+        compteRepository.deleteAllInBatch();
+    }
+
+    protected static int rows(int defaultRows) {
+        return Integer.getInteger("benchmark.rows", defaultRows);
+    }
+
+    /**
+     * Inserts {@code count} accounts in one SQL statement; account {@code x} has balance {@code x % 1000}.
+     */
+    protected void insertComptes(int count) {
+        jdbcTemplate.update("INSERT INTO compte (id, balance, creation_date, account_type) "
+                + "SELECT CAST(RANDOM_UUID() AS VARCHAR), MOD(x, 1000), '2024-01-01', "
+                + "CASE WHEN MOD(x, 2) = 0 THEN 'COURANT' ELSE 'EPARGNE' END "
+                + "FROM SYSTEM_RANGE(1, ?)", count);
+    }
+
+    protected static double expectedTotal(int count) {
+        double total = 0;
+        for (int x = 1; x <= count; x++) {
+            total += x % 1000;
+        }
+        return total;
+    }
+
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Bytes allocated so far by the current thread (HotSpot extension of ThreadMXBean).
+     */
+    protected static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    protected static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,144 @@
+package ma.projet.grpc;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import ma.projet.grpc.stubs.Compte;
+import ma.projet.grpc.stubs.CompteServiceGrpc;
+import ma.projet.grpc.stubs.GetAllComptesRequest;
+import ma.projet.grpc.stubs.GetComptesPageRequest;
+import ma.projet.grpc.stubs.GetComptesPageResponse;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Server-streaming and paged variants of AllComptes.
+ * Full measurement: {@code -Dbenchmark.rows=1000000}.
+ */
+class AllComptesStreamTests extends AbstractCompteGrpcTests {
+
+    private static final int ROWS = rows(20_000);
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    @Test
+    void streamReturnsEveryAccountInIdOrderChunkByChunk() {
+        insertComptes(ROWS);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        Iterator<Compte> accounts = CompteServiceGrpc.newBlockingStub(channel)
+                .allComptesStream(GetAllComptesRequest.getDefaultInstance());
+        int count = 0;
+        String previousId = "";
+        while (accounts.hasNext()) {
+            String id = accounts.next().getId();
+            assertTrue(id.compareTo(previousId) > 0, "Accounts should be streamed in ID order, without duplicates");
+            previousId = id;
+            count++;
+        }
+        long nanos = System.nanoTime() - start;
+        long chunkQueries = statistics.getQueryExecutionCount();
+
+        System.out.printf("AllComptesStream: %d accounts in %.0f ms, %d chunk queries%n",
+                count, millis(nanos), chunkQueries);
+
+        assertEquals(ROWS, count);
+        // One query per chunk plus the empty one that ends the stream: never the whole table at once
+        assertEquals((ROWS + STREAM_CHUNK_SIZE - 1) / STREAM_CHUNK_SIZE + 1, chunkQueries);
+    }
+
+    @Test
+    void streamFollowsClientFlowControl() throws Exception {
+        insertComptes(ROWS);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        CountDownLatch firstMessages = new CountDownLatch(10);
+        AtomicInteger received = new AtomicInteger();
+        CompletableFuture<Integer> completed = new CompletableFuture<>();
+        ClientCallStreamObserver<?>[] call = new ClientCallStreamObserver<?>[1];
+
+        CompteServiceGrpc.newStub(channel).allComptesStream(GetAllComptesRequest.getDefaultInstance(),
+                new ClientResponseObserver<GetAllComptesRequest, Compte>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<GetAllComptesRequest> requestStream) {
+                        call[0] = requestStream;
+                        requestStream.disableAutoRequestWithInitial(10);
+                    }
+
+                    @Override
+                    public void onNext(Compte compte) {
+                        received.incrementAndGet();
+                        firstMessages.countDown();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        completed.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.complete(received.get());
+                    }
+                });
+
+        // The client asked for 10 messages only: the server must wait instead of reading ahead
+        assertTrue(firstMessages.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(10, received.get());
+        assertEquals(1, statistics.getQueryExecutionCount(), "Only the first chunk should have been read");
+
+        call[0].request(Integer.MAX_VALUE);
+        assertEquals(ROWS, completed.get(60, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void pagesCoverEveryAccountOnce() {
+        insertComptes(ROWS);
+        CompteServiceGrpc.CompteServiceBlockingStub stub = CompteServiceGrpc.newBlockingStub(channel);
+
+        int count = 0;
+        int pages = 0;
+        String previousId = "";
+        String token = "";
+        long start = System.nanoTime();
+        do {
+            GetComptesPageResponse page = stub.comptesPage(GetComptesPageRequest.newBuilder()
+                    .setPageSize(1000)
+                    .setPageToken(token)
+                    .build());
+            for (Compte compte : page.getComptesList()) {
+                assertTrue(compte.getId().compareTo(previousId) > 0);
+                previousId = compte.getId();
+            }
+            count += page.getComptesCount();
+            token = page.getNextPageToken();
+            pages++;
+        } while (!token.isEmpty());
+
+        System.out.printf("ComptesPage: %d accounts in %d pages, %.0f ms%n", count, pages, millis(System.nanoTime() - start));
+
+        assertEquals(ROWS, count);
+        assertEquals((ROWS + 999) / 1000, pages);
+    }
+
+    @Test
+    void pageSizeIsCappedByTheServer() {
+        insertComptes(1500);
+
+        GetComptesPageResponse page = CompteServiceGrpc.newBlockingStub(channel)
+                .comptesPage(GetComptesPageRequest.newBuilder().setPageSize(1_000_000).build());
+
+        assertEquals(1000, page.getComptesCount());
+        assertFalse(page.getNextPageToken().isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package ma.projet.grpc;
+
+import io.grpc.stub.StreamObserver;
+import ma.projet.grpc.stubs.CompteRequest;
+import ma.projet.grpc.stubs.CompteServiceGrpc;
+import ma.projet.grpc.stubs.SaveCompteRequest;
+import ma.projet.grpc.stubs.SaveComptesBulkResponse;
+import ma.projet.grpc.stubs.TypeCompte;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Client-streaming SaveComptesBulk compared with repeated unary SaveCompte calls.
+ * Full measurement: {@code -Dbenchmark.rows=100000}.
+ */
+class SaveComptesBulkTests extends AbstractCompteGrpcTests {
+
+    private static final int ROWS = rows(10_000);
+    private static final int BULK_BATCH_SIZE = 1000;
+
+    @Test
+    void bulkSaveReportsInvalidItemsAndSavesTheOthers() throws Exception {
+        SaveComptesBulkResponse summary = saveBulk(10, 3);
+
+        assertEquals(10, summary.getReceived());
+        assertEquals(9, summary.getSaved());
+        assertEquals(1, summary.getFailuresCount());
+        assertEquals(3, summary.getFailures(0).getIndex());
+        assertEquals(9, compteRepository.count());
+    }
+
+    @Test
+    void bulkSaveIsBatchedAndFasterThanUnaryCalls() throws Exception {
+        Statistics statistics = statistics();
+        CompteServiceGrpc.CompteServiceBlockingStub stub = CompteServiceGrpc.newBlockingStub(channel);
+
+        // Before: one RPC, one transaction and one INSERT per account
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            stub.saveCompte(SaveCompteRequest.newBuilder().setCompte(compteRequest(i)).build());
+        }
+        double unaryPerSecond = ROWS / (millis(System.nanoTime() - start) / 1000);
+        long unaryTransactions = statistics.getTransactionCount();
+
+        // After: one client stream, one transaction and one JDBC batch per BULK_BATCH_SIZE accounts
+        statistics.clear();
+        start = System.nanoTime();
+        SaveComptesBulkResponse summary = saveBulk(ROWS, -1);
+        double bulkPerSecond = ROWS / (millis(System.nanoTime() - start) / 1000);
+        long bulkTransactions = statistics.getTransactionCount();
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("%d accounts: SaveCompte = %.0f accounts/s (%d transactions), "
+                        + "SaveComptesBulk = %.0f accounts/s (%d transactions, %d statements), x%.1f%n",
+                ROWS, unaryPerSecond, unaryTransactions, bulkPerSecond, bulkTransactions, bulkStatements,
+                bulkPerSecond / unaryPerSecond);
+
+        assertEquals(ROWS, summary.getSaved());
+        assertEquals(0, summary.getFailuresCount());
+        assertEquals(2L * ROWS, compteRepository.count());
+        assertEquals(ROWS, unaryTransactions);
+        assertEquals((ROWS + BULK_BATCH_SIZE - 1) / BULK_BATCH_SIZE, bulkTransactions);
+        assertTrue(bulkStatements <= bulkTransactions, "Each batch should be sent as one prepared INSERT");
+        assertTrue(bulkPerSecond > unaryPerSecond, "The bulk RPC should be faster than unary calls");
+    }
+
+    /**
+     * Streams {@code count} accounts; the one at {@code invalidIndex} has no creation date.
+     */
+    private SaveComptesBulkResponse saveBulk(int count, int invalidIndex) throws Exception {
+        CompletableFuture<SaveComptesBulkResponse> response = new CompletableFuture<>();
+        StreamObserver<SaveCompteRequest> requests = CompteServiceGrpc.newStub(channel)
+                .saveComptesBulk(new StreamObserver<>() {
+                    @Override
+                    public void onNext(SaveComptesBulkResponse summary) {
+                        response.complete(summary);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        response.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                });
+        for (int i = 0; i < count; i++) {
+            CompteRequest.Builder compte = compteRequest(i).toBuilder();
+            if (i == invalidIndex) {
+                compte.clearDateCreation();
+            }
+            requests.onNext(SaveCompteRequest.newBuilder().setCompte(compte).build());
+        }
+        requests.onCompleted();
+        return response.get(120, TimeUnit.SECONDS);
+    }
+
+    private static CompteRequest compteRequest(int i) {
+        return CompteRequest.newBuilder()
+                .setSolde(i % 1000)
+                .setDateCreation("2024-01-01")
+                .setType(i % 2 == 0 ? TypeCompte.COURANT : TypeCompte.EPARGNE)
+                .build();
+    }
+}
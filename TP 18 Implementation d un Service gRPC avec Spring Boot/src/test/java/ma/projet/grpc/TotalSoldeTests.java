@@ -0,0 +1,68 @@
+package ma.projet.grpc;
+
+import ma.projet.grpc.entities.Compte;
+import ma.projet.grpc.services.CompteService;
+import ma.projet.grpc.stubs.CompteServiceGrpc;
+import ma.projet.grpc.stubs.GetTotalSoldeRequest;
+import ma.projet.grpc.stubs.SoldeStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TotalSolde computed by an aggregate query, compared with the former implementation
+ * that loaded every account and summed the balances in Java.
+ * Full measurement: {@code -Dbenchmark.rows=1000000}.
+ */
+class TotalSoldeTests extends AbstractCompteGrpcTests {
+
+    private static final int ROWS = rows(50_000);
+
+    @Autowired
+    private CompteService compteService;
+
+    @Test
+    void totalSoldeOfEmptyTableIsZero() {
+        SoldeStats stats = CompteServiceGrpc.newBlockingStub(channel)
+                .totalSolde(GetTotalSoldeRequest.getDefaultInstance()).getStats();
+
+        assertEquals(0, stats.getCount());
+        assertEquals(0f, stats.getSum());
+        assertEquals(0f, stats.getAverage());
+    }
+
+    @Test
+    void totalSoldeIsAggregatedInTheDatabase() {
+        insertComptes(ROWS);
+        double expectedSum = expectedTotal(ROWS);
+
+        SoldeStats stats = CompteServiceGrpc.newBlockingStub(channel)
+                .totalSolde(GetTotalSoldeRequest.getDefaultInstance()).getStats();
+        assertEquals(ROWS, stats.getCount());
+        assertEquals(expectedSum, stats.getSum(), expectedSum * 1e-6);
+        assertEquals(expectedSum / ROWS, stats.getAverage(), 1e-3);
+
+        // Before: every account is loaded, then summed in Java
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        double loadedSum = compteService.findAllComptes().stream().mapToDouble(Compte::getBalance).sum();
+        long loadNanos = System.nanoTime() - start;
+        long loadBytes = allocatedBytes() - allocated;
+
+        // After: one aggregate row
+        allocated = allocatedBytes();
+        start = System.nanoTime();
+        double aggregatedSum = compteService.getSoldeStats().getTotalBalance();
+        long aggregateNanos = System.nanoTime() - start;
+        long aggregateBytes = allocatedBytes() - allocated;
+
+        System.out.printf("TotalSolde over %d accounts: findAll + sum = %.1f ms / %d KB allocated, "
+                        + "aggregate query = %.1f ms / %d KB allocated%n",
+                ROWS, millis(loadNanos), loadBytes / 1024, millis(aggregateNanos), aggregateBytes / 1024);
+
+        assertEquals(loadedSum, aggregatedSum, expectedSum * 1e-6);
+        assertTrue(aggregateBytes < 1024 * 1024, "The aggregate query should not materialize the accounts");
+        assertTrue(aggregateBytes * 10 < loadBytes, "The aggregate query should allocate far less than findAll");
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 public interface IDao<T> {
     boolean create(T o);
+    boolean createAll(List<T> list);
     boolean delete(T o);
     boolean update(T o);
     T findById(int id);
@@ -6,10 +6,13 @@ import javax.persistence.*;
 @Entity
 @NamedNativeQuery(name = "findBetweenDateNative", query = "select * from machine where dateAchat between :d1 and :d2", resultClass = Machine.class)
 @NamedQuery(name = "findBetweenDate", query = "from Machine where dateAchat between :d1 and :d2")
+@NamedQuery(name = "scrollBetweenDate", query = "select m from Machine m left join fetch m.salle where m.dateAchat between :d1 and :d2")
 public class Machine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY désactive le batching JDBC des INSERT : les identifiants sont réservés par blocs
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "machine_gen")
+    @TableGenerator(name = "machine_gen", table = "id_generator", pkColumnValue = "machine", allocationSize = 50)
     private int id;
     private String ref;
 
@@ -21,12 +24,19 @@ public class Machine {
 
     // Constructeurs, getters et setters
 
+    public Machine() {
+    }
+
     public Machine(String ref, Date dateAchat, Salle salle) {
         this.ref = ref;
         this.dateAchat = dateAchat;
         this.salle = salle;
     }
 
+    public int getId() {
+        return id;
+    }
+
     public String getRef() {
         return ref;
     }
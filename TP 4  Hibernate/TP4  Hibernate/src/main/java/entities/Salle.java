@@ -2,24 +2,40 @@ package entities;
 
 import java.util.List;
 import javax.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "salles")
+@NamedEntityGraph(name = "Salle.machines", attributeNodes = @NamedAttributeNode("machines"))
 public class Salle {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "salle_gen")
+    @TableGenerator(name = "salle_gen", table = "id_generator", pkColumnValue = "salles", allocationSize = 50)
     private int id;
     private String code;
 
-    @OneToMany(mappedBy = "salle", fetch = FetchType.EAGER)
+    // Chargée à la demande : voir SalleService.findByIdWithMachines / findAllWithMachines
+    @OneToMany(mappedBy = "salle", fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<Machine> machines;
 
+    public Salle() {
+    }
+
+    public Salle(String code) {
+        this.code = code;
+    }
+
     public Salle(String code, List<Machine> machines) {
         this.code = code;
         this.machines = machines;
     }
 
+    public int getId() {
+        return id;
+    }
+
     public List<Machine> getMachines() {
         return machines;
     }
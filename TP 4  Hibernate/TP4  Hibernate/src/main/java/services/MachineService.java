@@ -3,15 +3,22 @@ package services;
 import dao.IDao;
 import entities.Machine;
 import org.hibernate.HibernateException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
+import org.hibernate.StatelessSession;
 import org.hibernate.Transaction;
 import util.HibernateUtil;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class MachineService implements IDao<Machine> {
 
+    // Nombre de lignes lues par aller-retour JDBC lors d'un parcours
+    private static final int FETCH_SIZE = 1000;
+
     @Override
     public boolean create(Machine o) {
         Session session = null;
@@ -34,6 +41,36 @@ public class MachineService implements IDao<Machine> {
         return etat;
     }
 
+    @Override
+    public boolean createAll(List<Machine> machines) {
+        Session session = null;
+        Transaction tx = null;
+        boolean etat = false;
+        try {
+            session = HibernateUtil.getSessionFactory().openSession();
+            tx = session.beginTransaction();
+            int batchSize = HibernateUtil.getBatchSize();
+            for (int i = 0; i < machines.size(); i++) {
+                session.save(machines.get(i));
+                // Envoie le lot courant puis libère le cache de premier niveau
+                if ((i + 1) % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            tx.commit();
+            etat = true;
+        } catch (HibernateException e) {
+            if(tx != null)
+                tx.rollback();
+            e.printStackTrace();
+        } finally {
+            if(session != null)
+                session.close();
+        }
+        return etat;
+    }
+
     @Override
     public boolean delete(Machine o) {
         Session session = null;
@@ -142,4 +179,70 @@ public class MachineService implements IDao<Machine> {
         }
         return machines;
     }
+
+    // Parcourt les machines une à une sans les garder toutes en mémoire ; la session est vidée tous les FETCH_SIZE éléments
+    public int forEachBetweenDate(Date d1, Date d2, Consumer<Machine> action) {
+        Session session = null;
+        Transaction tx = null;
+        ScrollableResults results = null;
+        int count = 0;
+        try {
+            session = HibernateUtil.getSessionFactory().openSession();
+            tx = session.beginTransaction();
+            results = session.getNamedQuery("scrollBetweenDate")
+                    .setParameter("d1", d1)
+                    .setParameter("d2", d2)
+                    .setReadOnly(true)
+                    .setFetchSize(FETCH_SIZE)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            while (results.next()) {
+                action.accept((Machine) results.get(0));
+                if (++count % FETCH_SIZE == 0)
+                    session.clear();
+            }
+            tx.commit();
+        } catch (HibernateException e) {
+            if(tx != null)
+                tx.rollback();
+            e.printStackTrace();
+        } finally {
+            if(results != null)
+                results.close();
+            if(session != null)
+                session.close();
+        }
+        return count;
+    }
+
+    // Variante pour l'export en lecture seule : session sans état, donc ni cache de premier niveau ni dirty checking
+    public int exportBetweenDate(Date d1, Date d2, Consumer<Machine> action) {
+        StatelessSession session = null;
+        Transaction tx = null;
+        ScrollableResults results = null;
+        int count = 0;
+        try {
+            session = HibernateUtil.getSessionFactory().openStatelessSession();
+            tx = session.beginTransaction();
+            results = session.getNamedQuery("scrollBetweenDate")
+                    .setParameter("d1", d1)
+                    .setParameter("d2", d2)
+                    .setFetchSize(FETCH_SIZE)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            while (results.next()) {
+                action.accept((Machine) results.get(0));
+                count++;
+            }
+            tx.commit();
+        } catch (HibernateException e) {
+            if(tx != null)
+                tx.rollback();
+            e.printStackTrace();
+        } finally {
+            if(results != null)
+                results.close();
+            if(session != null)
+                session.close();
+        }
+        return count;
+    }
 }
\ No newline at end of file
@@ -2,11 +2,13 @@ package services;
 
 import dao.IDao;
 import entities.Salle;
+import org.hibernate.Hibernate;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import util.HibernateUtil;
 
+import java.util.Collections;
 import java.util.List;
 
 public class SalleService implements IDao<Salle> {
@@ -33,6 +35,36 @@ public class SalleService implements IDao<Salle> {
         return etat;
     }
 
+    @Override
+    public boolean createAll(List<Salle> salles) {
+        Session session = null;
+        Transaction tx = null;
+        boolean etat = false;
+        try {
+            session = HibernateUtil.getSessionFactory().openSession();
+            tx = session.beginTransaction();
+            int batchSize = HibernateUtil.getBatchSize();
+            for (int i = 0; i < salles.size(); i++) {
+                session.save(salles.get(i));
+                // Envoie le lot courant puis libère le cache de premier niveau
+                if ((i + 1) % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            tx.commit();
+            etat = true;
+        } catch (HibernateException e) {
+            if(tx != null)
+                tx.rollback();
+            e.printStackTrace();
+        } finally {
+            if(session != null)
+                session.close();
+        }
+        return etat;
+    }
+
     @Override
     public boolean delete(Salle o) {
         Session session = null;
@@ -118,4 +150,50 @@ public class SalleService implements IDao<Salle> {
         }
         return salles;
     }
+
+    // Salle avec ses machines en une seule requête (graphe d'entité Salle.machines)
+    public Salle findByIdWithMachines(int id) {
+        Session session = null;
+        Transaction tx = null;
+        Salle salle = null;
+        try {
+            session = HibernateUtil.getSessionFactory().openSession();
+            tx = session.beginTransaction();
+            salle = session.find(Salle.class, id, Collections.singletonMap(
+                    "javax.persistence.fetchgraph", session.getEntityGraph("Salle.machines")));
+            tx.commit();
+        } catch (HibernateException e) {
+            if(tx != null)
+                tx.rollback();
+            e.printStackTrace();
+        } finally {
+            if(session != null)
+                session.close();
+        }
+        return salle;
+    }
+
+    // Salles avec leurs machines : les collections sont chargées par lots (@BatchSize) plutôt qu'une requête par salle
+    public List<Salle> findAllWithMachines() {
+        Session session = null;
+        Transaction tx = null;
+        List<Salle> salles = null;
+        try {
+            session = HibernateUtil.getSessionFactory().openSession();
+            tx = session.beginTransaction();
+            salles = session.createQuery("from Salle", Salle.class).list();
+            for (Salle salle : salles) {
+                Hibernate.initialize(salle.getMachines());
+            }
+            tx.commit();
+        } catch (HibernateException e) {
+            if(tx != null)
+                tx.rollback();
+            e.printStackTrace();
+        } finally {
+            if(session != null)
+                session.close();
+        }
+        return salles;
+    }
 }
\ No newline at end of file
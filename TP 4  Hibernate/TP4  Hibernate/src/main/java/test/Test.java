@@ -26,7 +26,7 @@ public class Test {
         machineService.create(machine2);
 
         // Affichage des salles et leurs machines
-        for(Salle salle : salleService.findAll()) {
+        for(Salle salle : salleService.findAllWithMachines()) {
             System.out.println("Salle: " + salle.getCode());
             for(Machine machine : salle.getMachines()) {
                 System.out.println("  Machine: " + machine.getRef());
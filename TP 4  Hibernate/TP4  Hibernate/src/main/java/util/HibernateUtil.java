@@ -1,7 +1,13 @@
 package util;
 
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 public class HibernateUtil {
 
@@ -11,6 +17,7 @@ public class HibernateUtil {
         try {
             // Crée la SessionFactory à partir du fichier de configuration standard (hibernate.cfg.xml)
             sessionFactory = new Configuration().configure().buildSessionFactory();
+            initialiserGenerateurs();
         } catch (Throwable ex) {
             // Log l'exception pour le débogage
             System.err.println("Échec de la création de SessionFactory." + ex);
@@ -18,7 +25,32 @@ public class HibernateUtil {
         }
     }
 
+    // Exécute sql/id_generator.sql une fois le schéma mis à jour, pour que les blocs d'identifiants
+    // réservés par les @TableGenerator ne recouvrent pas les lignes déjà en base
+    private static void initialiserGenerateurs() throws IOException {
+        String script;
+        try (InputStream in = HibernateUtil.class.getResourceAsStream("/sql/id_generator.sql")) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (String instruction : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!instruction.isBlank()) {
+                    session.createNativeQuery(instruction.trim()).executeUpdate();
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+
     public static SessionFactory getSessionFactory() {
         return sessionFactory;
     }
-}
\ No newline at end of file
+
+    // Taille des lots JDBC (hibernate.jdbc.batch_size), utilisée pour vider la session pendant les insertions en masse
+    public static int getBatchSize() {
+        int batchSize = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().getJdbcBatchSize();
+        return batchSize > 0 ? batchSize : 1;
+    }
+}
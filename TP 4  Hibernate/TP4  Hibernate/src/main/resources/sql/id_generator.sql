@@ -0,0 +1,7 @@
+-- Aligne la table id_generator sur les identifiants déjà présents (ex. lignes créées en IDENTITY).
+-- Avec l'optimiseur pooled, next_val est la borne haute du prochain bloc de 50 identifiants
+-- (allocationSize), d'où MAX(id) + 50 : le bloc réservé commence au-delà de MAX(id).
+insert into id_generator (sequence_name, next_val) select 'machine', 0 from (select 1 as x) t where not exists (select 1 from id_generator where sequence_name = 'machine');
+update id_generator set next_val = (select coalesce(max(id), 0) + 50 from machine) where sequence_name = 'machine' and next_val < (select coalesce(max(id), 0) + 50 from machine);
+insert into id_generator (sequence_name, next_val) select 'salles', 0 from (select 1 as x) t where not exists (select 1 from id_generator where sequence_name = 'salles');
+update id_generator set next_val = (select coalesce(max(id), 0) + 50 from salles) where sequence_name = 'salles' and next_val < (select coalesce(max(id), 0) + 50 from salles);
@@ -0,0 +1,107 @@
+import entities.Machine;
+import entities.Salle;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import services.MachineService;
+import services.SalleService;
+import util.HibernateUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MachineBulkInsertTest {
+
+    private static final int NB_MACHINES = Integer.getInteger("benchmark.rows", 5000);
+
+    private MachineService machineService;
+    private SalleService salleService;
+    private Salle salle;
+
+    @Before
+    public void setUp() {
+        machineService = new MachineService();
+        salleService = new SalleService();
+        salle = new Salle();
+        salle.setCode("BULK");
+        salleService.create(salle);
+    }
+
+    @After
+    public void tearDown() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Machine").executeUpdate();
+            session.createQuery("delete from Salle").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    public void testCreateAllPersistsEveryMachine() {
+        List<Machine> machines = nouvellesMachines("LOT", NB_MACHINES);
+        assertTrue("Bulk creation should succeed", machineService.createAll(machines));
+
+        for (Machine machine : machines) {
+            assertTrue("Every machine should have an ID", machine.getId() > 0);
+        }
+        assertEquals(NB_MACHINES, compterMachines());
+    }
+
+    @Test
+    public void testInsertThroughputBeforeAndAfterBatching() {
+        Statistics stats = HibernateUtil.getSessionFactory().getStatistics();
+        stats.setStatisticsEnabled(true);
+
+        // Avant : une session et une transaction par machine
+        List<Machine> unitaires = nouvellesMachines("UNIT", NB_MACHINES);
+        long debut = System.nanoTime();
+        for (Machine machine : unitaires) {
+            machineService.create(machine);
+        }
+        double avant = debit(NB_MACHINES, System.nanoTime() - debut);
+
+        // Après : une seule unité de travail avec INSERT groupés par lots JDBC
+        stats.clear();
+        List<Machine> groupees = nouvellesMachines("BATCH", NB_MACHINES);
+        debut = System.nanoTime();
+        assertTrue(machineService.createAll(groupees));
+        double apres = debit(NB_MACHINES, System.nanoTime() - debut);
+        long statements = stats.getPrepareStatementCount();
+        stats.setStatisticsEnabled(false);
+
+        System.out.printf("Insertions/s : unitaire = %.0f, createAll = %.0f (x%.1f), %d requêtes préparées pour %d machines%n",
+                avant, apres, apres / avant, statements, NB_MACHINES);
+
+        assertEquals(2L * NB_MACHINES, compterMachines());
+        assertTrue("Inserts should be sent in JDBC batches", statements < NB_MACHINES / 10);
+    }
+
+    private List<Machine> nouvellesMachines(String prefixe, int nombre) {
+        List<Machine> machines = new ArrayList<>(nombre);
+        Date dateAchat = new Date();
+        for (int i = 0; i < nombre; i++) {
+            Machine machine = new Machine();
+            machine.setRef(prefixe + "-" + i);
+            machine.setDateAchat(dateAchat);
+            machine.setSalle(salle);
+            machines.add(machine);
+        }
+        return machines;
+    }
+
+    private long compterMachines() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("select count(m) from Machine m", Long.class).uniqueResult();
+        }
+    }
+
+    private static double debit(int nombre, long nanos) {
+        return nombre / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,107 @@
+import entities.Machine;
+import entities.Salle;
+import org.hibernate.Session;
+import org.hibernate.collection.internal.AbstractPersistentCollection;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import services.MachineService;
+import services.SalleService;
+import util.HibernateUtil;
+
+import java.util.Date;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class MachineScrollExportTest {
+
+    // 1 000 000 pour la mesure complète : -Dbenchmark.rows=1000000
+    private static final int NB_MACHINES = Integer.getInteger("benchmark.rows", 20_000);
+    private static final long PREMIER_ID = 10_000_000L;
+    // Entités gérées au plus pendant un parcours : un bloc de FETCH_SIZE (1000) machines et leur salle,
+    // quel que soit NB_MACHINES
+    private static final int MAX_ENTITES_GEREES = 1000 + 1;
+
+    private static MachineService machineService;
+    private static Date debut;
+    private static Date fin;
+
+    @BeforeClass
+    public static void setUpClass() {
+        machineService = new MachineService();
+        Salle salle = new Salle();
+        salle.setCode("EXPORT");
+        new SalleService().create(salle);
+
+        // Insertion directe en SQL : l'objet du test est la lecture, pas l'écriture
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createNativeQuery("insert into Machine (id, ref, dateAchat, salle_id) "
+                            + "select :premier + x, concat('EXP-', x), current_date, :salle from system_range(1, :nombre)")
+                    .setParameter("premier", PREMIER_ID)
+                    .setParameter("salle", salle.getId())
+                    .setParameter("nombre", NB_MACHINES)
+                    .executeUpdate();
+            session.getTransaction().commit();
+        }
+        debut = new Date(System.currentTimeMillis() - 86400000);
+        fin = new Date(System.currentTimeMillis() + 86400000);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Machine").executeUpdate();
+            session.createQuery("delete from Salle").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    public void testForEachBetweenDateVisitsEveryMachine() {
+        Export export = new Export();
+        int count = machineService.forEachBetweenDate(debut, fin, export);
+        export.verifier("forEachBetweenDate", count);
+        assertTrue("Session du parcours non observée", export.maxEntitesGerees > 0);
+    }
+
+    @Test
+    public void testExportBetweenDateWithStatelessSession() {
+        Export export = new Export();
+        int count = machineService.exportBetweenDate(debut, fin, export);
+        export.verifier("exportBetweenDate", count);
+    }
+
+    // Relève le nombre d'entités gérées par la session du parcours, atteinte par la collection paresseuse
+    // salle.machines de chaque machine lue tant qu'elle est rattachée à la session qui l'a chargée
+    private static class Export implements Consumer<Machine> {
+
+        private final long depart = System.nanoTime();
+        private int lues;
+        private int maxEntitesGerees;
+
+        @Override
+        public void accept(Machine machine) {
+            assertNotNull(machine.getSalle());
+            SharedSessionContractImplementor session =
+                    ((AbstractPersistentCollection) machine.getSalle().getMachines()).getSession();
+            // Session sans état : son contexte temporaire est vidé après chaque ligne, la machine arrive détachée
+            if (session != null) {
+                maxEntitesGerees = Math.max(maxEntitesGerees, session.getPersistenceContext().getNumberOfManagedEntities());
+            }
+            lues++;
+        }
+
+        void verifier(String methode, int count) {
+            double secondes = (System.nanoTime() - depart) / 1_000_000_000.0;
+            System.out.printf("%s : %d machines en %.1f s, au plus %d entités gérées%n", methode, count, secondes,
+                    maxEntitesGerees);
+            assertEquals(NB_MACHINES, count);
+            assertEquals(NB_MACHINES, lues);
+            assertTrue(methode + " : " + maxEntitesGerees + " entités gérées", maxEntitesGerees <= MAX_ENTITES_GEREES);
+        }
+    }
+}
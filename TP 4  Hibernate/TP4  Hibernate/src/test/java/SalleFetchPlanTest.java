@@ -0,0 +1,113 @@
+import entities.Machine;
+import entities.Salle;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import services.MachineService;
+import services.SalleService;
+import util.HibernateUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SalleFetchPlanTest {
+
+    private static final int NB_SALLES = 1000;
+    private static final int MACHINES_PAR_SALLE = 100;
+
+    private static SalleService salleService;
+    private static Statistics stats;
+
+    @BeforeClass
+    public static void setUpClass() {
+        salleService = new SalleService();
+        MachineService machineService = new MachineService();
+
+        List<Salle> salles = new ArrayList<>(NB_SALLES);
+        for (int i = 0; i < NB_SALLES; i++) {
+            Salle salle = new Salle();
+            salle.setCode("S" + i);
+            salles.add(salle);
+        }
+        assertTrue(salleService.createAll(salles));
+
+        List<Machine> machines = new ArrayList<>(NB_SALLES * MACHINES_PAR_SALLE);
+        Date dateAchat = new Date();
+        for (Salle salle : salles) {
+            for (int j = 0; j < MACHINES_PAR_SALLE; j++) {
+                Machine machine = new Machine();
+                machine.setRef(salle.getCode() + "-M" + j);
+                machine.setDateAchat(dateAchat);
+                machine.setSalle(salle);
+                machines.add(machine);
+            }
+        }
+        assertTrue(machineService.createAll(machines));
+
+        stats = HibernateUtil.getSessionFactory().getStatistics();
+        stats.setStatisticsEnabled(true);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        stats.setStatisticsEnabled(false);
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createQuery("delete from Machine").executeUpdate();
+            session.createQuery("delete from Salle").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @Test
+    public void testFindAllLoadsSallesOnly() {
+        stats.clear();
+        List<Salle> salles = salleService.findAll();
+
+        assertEquals(NB_SALLES, salles.size());
+        assertEquals("Salles only: a single select", 1, stats.getPrepareStatementCount());
+        assertEquals(NB_SALLES, stats.getEntityLoadCount());
+        assertFalse(Hibernate.isInitialized(salles.get(0).getMachines()));
+        System.out.printf("findAll : %d requêtes, %d entités en mémoire%n",
+                stats.getPrepareStatementCount(), stats.getEntityLoadCount());
+    }
+
+    @Test
+    public void testFindAllWithMachinesUsesBatchFetching() {
+        stats.clear();
+        List<Salle> salles = salleService.findAllWithMachines();
+
+        assertEquals(NB_SALLES, salles.size());
+        for (Salle salle : salles) {
+            assertTrue(Hibernate.isInitialized(salle.getMachines()));
+            assertEquals(MACHINES_PAR_SALLE, salle.getMachines().size());
+        }
+        // 1 requête pour les salles + une par lot de 50 collections, au lieu de 1 + NB_SALLES
+        assertEquals(1 + NB_SALLES / 50, stats.getPrepareStatementCount());
+        assertEquals(NB_SALLES + NB_SALLES * MACHINES_PAR_SALLE, stats.getEntityLoadCount());
+        System.out.printf("findAllWithMachines : %d requêtes, %d entités en mémoire%n",
+                stats.getPrepareStatementCount(), stats.getEntityLoadCount());
+    }
+
+    @Test
+    public void testFindByIdWithMachinesUsesEntityGraph() {
+        int id = salleService.findAll().get(0).getId();
+
+        stats.clear();
+        Salle salle = salleService.findById(id);
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(salle.getMachines()));
+
+        stats.clear();
+        salle = salleService.findByIdWithMachines(id);
+        assertEquals("Salle and machines in one joined select", 1, stats.getPrepareStatementCount());
+        assertTrue(Hibernate.isInitialized(salle.getMachines()));
+        assertEquals(MACHINES_PAR_SALLE, salle.getMachines().size());
+    }
+}
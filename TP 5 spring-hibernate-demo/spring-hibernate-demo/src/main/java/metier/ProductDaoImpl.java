@@ -26,23 +26,27 @@ public class ProductDaoImpl implements IDao<Product> {
 
     // Méthodes restantes à implémenter :
     @Override
+    @Transactional
     public boolean delete(Product product) {
         sessionFactory.getCurrentSession().delete(product);
         return true;
     }
 
     @Override
+    @Transactional
     public boolean update(Product product) {
         sessionFactory.getCurrentSession().update(product);
         return true;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Product findById(int id) {
         return sessionFactory.getCurrentSession().get(Product.class, id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> findAll() {
         return sessionFactory.getCurrentSession()
                 .createQuery("from Product", Product.class)
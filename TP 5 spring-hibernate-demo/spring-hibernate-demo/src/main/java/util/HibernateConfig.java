@@ -8,8 +8,9 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
-import javax.sql.DataSource;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.util.Properties;
 
 @Configuration
@@ -42,14 +43,42 @@ public class HibernateConfig {
     @Value("${spring.jpa.properties.hibernate.format_sql}")
     private String formatSql;
 
-    @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(driverClassName);
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-        return dataSource;
+    @Value("${spring.datasource.hikari.pool-name:spring-hibernate-demo}")
+    private String poolName;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${spring.datasource.hikari.minimum-idle:2}")
+    private int minimumIdle;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${spring.jpa.properties.hibernate.cache.use_second_level_cache:true}")
+    private String useSecondLevelCache;
+
+    // Pool HikariCP : les connexions physiques sont réutilisées d'une opération DAO à l'autre
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(driverClassName);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
+        config.setConnectionTimeout(connectionTimeout);
+        // Publie les métriques du pool (connexions actives, inactives, en attente) en JMX
+        config.setRegisterMbeans(true);
+        return new HikariDataSource(config);
+    }
+
+    // destroyMethod vide : sinon Spring appellerait shutdown() sur le pool avant la fermeture de la SessionFactory
+    @Bean(destroyMethod = "")
+    public HikariPoolMXBean poolMetrics() {
+        return dataSource().getHikariPoolMXBean();
     }
 
     @Bean
@@ -63,6 +92,11 @@ public class HibernateConfig {
         hibernateProperties.put("hibernate.hbm2ddl.auto", hibernateDdlAuto);
         hibernateProperties.put("hibernate.show_sql", showSql);
         hibernateProperties.put("hibernate.format_sql", formatSql);
+        // Cache de second niveau local à la JVM (Caffeine derrière l'API JCache)
+        hibernateProperties.put("hibernate.cache.use_second_level_cache", useSecondLevelCache);
+        hibernateProperties.put("hibernate.cache.region.factory_class", "jcache");
+        hibernateProperties.put("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "create");
 
         sessionFactory.setHibernateProperties(hibernateProperties);
         return sessionFactory;
@@ -0,0 +1,109 @@
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dao.IDao;
+import entities.Product;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import util.HibernateConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Débit en lecture (findById) et en écriture (create) contre H2, avec et sans cache de second niveau
+// Lancement : mvn test-compile exec:java -Dexec.mainClass=ProductBenchmark -Dexec.classpathScope=test
+public class ProductBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8};
+    private static final int NB_PRODUITS = 1000;
+    private static final int LECTURES_PAR_THREAD = Integer.getInteger("benchmark.reads", 20000);
+    private static final int ECRITURES_PAR_THREAD = Integer.getInteger("benchmark.writes", 2000);
+
+    public static void main(String[] args) throws Exception {
+        // Les propriétés système priment sur application.properties
+        System.setProperty("spring.datasource.driver-class-name", "org.h2.Driver");
+        System.setProperty("spring.datasource.username", "sa");
+        System.setProperty("spring.datasource.password", "");
+        System.setProperty("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("spring.jpa.hibernate.ddl-auto", "create-drop");
+        System.setProperty("spring.jpa.show-sql", "false");
+
+        for (boolean cache : new boolean[]{false, true}) {
+            System.setProperty("spring.datasource.url", "jdbc:h2:mem:bench-" + cache + ";DB_CLOSE_DELAY=-1");
+            System.setProperty("spring.jpa.properties.hibernate.cache.use_second_level_cache", String.valueOf(cache));
+            System.out.println("=== Cache de second niveau : " + (cache ? "activé" : "désactivé"));
+            try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(HibernateConfig.class)) {
+                executer(context);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void executer(AnnotationConfigApplicationContext context) throws Exception {
+        IDao<Product> productDao = context.getBean(IDao.class);
+        HikariPoolMXBean pool = context.getBean(HikariPoolMXBean.class);
+        Statistics stats = context.getBean(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+
+        List<Integer> ids = new ArrayList<>(NB_PRODUITS);
+        for (int i = 0; i < NB_PRODUITS; i++) {
+            Product product = nouveauProduit(i);
+            productDao.create(product);
+            ids.add(product.getId());
+        }
+
+        // Préchauffage (JIT, pool, cache) non mesuré
+        mesurer(THREADS[THREADS.length - 1], LECTURES_PAR_THREAD / 10,
+                () -> productDao.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size()))));
+        mesurer(THREADS[THREADS.length - 1], ECRITURES_PAR_THREAD / 10, () -> productDao.create(nouveauProduit(0)));
+
+        for (int threads : THREADS) {
+            stats.clear();
+            double lectures = mesurer(threads, LECTURES_PAR_THREAD, () -> {
+                Product product = productDao.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+                if (product == null)
+                    throw new IllegalStateException("Produit introuvable");
+            });
+            long hits = stats.getSecondLevelCacheHitCount();
+            long requetes = stats.getPrepareStatementCount();
+
+            double ecritures = mesurer(threads, ECRITURES_PAR_THREAD,
+                    () -> productDao.create(nouveauProduit(ThreadLocalRandom.current().nextInt())));
+
+            System.out.printf("%d thread(s) : lectures = %.0f ops/s (%d hits cache, %d requêtes SQL), écritures = %.0f ops/s"
+                            + " | pool : %d actives, %d inactives, %d total, %d en attente%n",
+                    threads, lectures, hits, requetes, ecritures,
+                    pool.getActiveConnections(), pool.getIdleConnections(),
+                    pool.getTotalConnections(), pool.getThreadsAwaitingConnection());
+        }
+    }
+
+    private static double mesurer(int threads, int operationsParThread, Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            long debut = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < operationsParThread; i++)
+                        operation.run();
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+            return (double) threads * operationsParThread / ((System.nanoTime() - debut) / 1_000_000_000.0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Product nouveauProduit(int i) {
+        Product product = new Product();
+        product.setName("Produit " + i);
+        product.setPrice(10.0 + Math.abs(i % 1000));
+        return product;
+    }
+}
@@ -14,10 +14,16 @@ CREATE TABLE student (
     id INT AUTO_INCREMENT PRIMARY KEY,
     nom VARCHAR(255),
     prenom VARCHAR(255),
-    date_naissance DATE
+    date_naissance DATE,
+    annee_naissance INT
 );
+CREATE INDEX idx_student_annee_naissance ON student (annee_naissance);
 */
 
+-- Existing rows get their birth year at application startup; it can also be filled manually:
+-- UPDATE student SET annee_naissance = YEAR(date_naissance)
+-- WHERE annee_naissance IS NULL AND date_naissance IS NOT NULL;
+
 -- Sample data for testing (optional)
 -- Uncomment these lines if you want to insert test data manually:
 
@@ -33,6 +39,6 @@ INSERT INTO student (nom, prenom, date_naissance) VALUES
 -- SELECT * FROM student;
 
 -- Query to count students by year
--- SELECT YEAR(date_naissance) as year, COUNT(*) as count 
+-- SELECT annee_naissance as year, COUNT(*) as count 
 -- FROM student 
--- GROUP BY YEAR(date_naissance);
+-- GROUP BY annee_naissance;
@@ -67,7 +67,7 @@ public class StudentController {
      * Get student count grouped by birth year
      */
     @GetMapping("/byYear")
-    @Operation(summary = "Get students by year", description = "Returns the number of students grouped by birth year")
+    @Operation(summary = "Get students by year", description = "Returns the number of students grouped by birth year, cached until the next write")
     public ResponseEntity<Collection<Object[]>> findByYear() {
         Collection<Object[]> result = studentService.findNbrStudentByYear();
         return new ResponseEntity<>(result, HttpStatus.OK);
@@ -1,9 +1,11 @@
 package com.example.demo.entities;
 
 import jakarta.persistence.*;
+import java.util.Calendar;
 import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(name = "idx_student_annee_naissance", columnList = "annee_naissance"))
 public class Student {
     
     @Id
@@ -17,6 +19,11 @@ public class Student {
     @Temporal(TemporalType.DATE)
     private Date dateNaissance;
     
+    // Birth year stored in its own indexed column, so statistics by year
+    // do not apply YEAR() to every row
+    @Column(name = "annee_naissance")
+    private Integer anneeNaissance;
+    
     // Default constructor
     public Student() {
     }
@@ -25,7 +32,7 @@ public class Student {
     public Student(String nom, String prenom, Date dateNaissance) {
         this.nom = nom;
         this.prenom = prenom;
-        this.dateNaissance = dateNaissance;
+        setDateNaissance(dateNaissance);
     }
     
     // Getters and Setters
@@ -59,6 +66,24 @@ public class Student {
     
     public void setDateNaissance(Date dateNaissance) {
         this.dateNaissance = dateNaissance;
+        calculerAnneeNaissance();
+    }
+    
+    public Integer getAnneeNaissance() {
+        return anneeNaissance;
+    }
+    
+    // Keep the derived column in sync whatever way dateNaissance was set
+    @PrePersist
+    @PreUpdate
+    private void calculerAnneeNaissance() {
+        if (dateNaissance == null) {
+            anneeNaissance = null;
+            return;
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(dateNaissance);
+        anneeNaissance = calendar.get(Calendar.YEAR);
     }
     
     @Override
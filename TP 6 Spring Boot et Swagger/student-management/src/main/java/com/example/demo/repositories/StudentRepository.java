@@ -2,6 +2,7 @@ package com.example.demo.repositories;
 
 import java.util.Collection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import com.example.demo.entities.Student;
@@ -12,7 +13,17 @@ public interface StudentRepository extends JpaRepository<Student, Integer> {
     /**
      * Custom query to count students grouped by year of birth
      * Returns a collection containing year and count
+     * Groups on the indexed annee_naissance column instead of YEAR(dateNaissance)
      */
-    @Query("SELECT YEAR(s.dateNaissance) as year, COUNT(s) as count FROM Student s GROUP BY YEAR(s.dateNaissance)")
+    @Query("SELECT s.anneeNaissance as year, COUNT(s) as count FROM Student s GROUP BY s.anneeNaissance")
     Collection<Object[]> findNbrStudentByYear();
+    
+    /**
+     * Fill the birth year of rows written before the annee_naissance column existed
+     * Returns the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE Student s SET s.anneeNaissance = YEAR(s.dateNaissance) "
+            + "WHERE s.anneeNaissance IS NULL AND s.dateNaissance IS NOT NULL")
+    int fillMissingAnneeNaissance();
 }
@@ -3,21 +3,32 @@ package com.example.demo.services;
 import com.example.demo.entities.Student;
 import com.example.demo.repositories.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class StudentService {
     
+    public static final String STUDENTS_BY_YEAR_CACHE = "studentsByYear";
+    public static final String STUDENT_COUNT_CACHE = "studentCount";
+    
     @Autowired
     private StudentRepository studentRepository;
     
     /**
      * Save or update a student
+     * Statistics are evicted, they are recomputed on the next read
      */
+    @CacheEvict(cacheNames = {STUDENTS_BY_YEAR_CACHE, STUDENT_COUNT_CACHE}, allEntries = true)
     public Student save(Student student) {
         return studentRepository.save(student);
     }
@@ -26,6 +37,7 @@ public class StudentService {
      * Delete a student by ID
      * Returns true if deleted, false if not found
      */
+    @CacheEvict(cacheNames = {STUDENTS_BY_YEAR_CACHE, STUDENT_COUNT_CACHE}, allEntries = true)
     public boolean delete(int id) {
         Optional<Student> student = studentRepository.findById(id);
         if (student.isPresent()) {
@@ -45,14 +57,27 @@ public class StudentService {
     /**
      * Count total number of students
      */
+    @Cacheable(STUDENT_COUNT_CACHE)
     public long countStudents() {
         return studentRepository.count();
     }
     
     /**
      * Find number of students grouped by birth year
+     * Cached until the next save or delete
      */
+    @Cacheable(STUDENTS_BY_YEAR_CACHE)
     public Collection<Object[]> findNbrStudentByYear() {
-        return studentRepository.findNbrStudentByYear();
+        return Collections.unmodifiableCollection(studentRepository.findNbrStudentByYear());
+    }
+    
+    /**
+     * Fill annee_naissance for students saved before the column existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    @CacheEvict(cacheNames = {STUDENTS_BY_YEAR_CACHE, STUDENT_COUNT_CACHE}, allEntries = true)
+    public void fillMissingAnneeNaissance() {
+        studentRepository.fillMissingAnneeNaissance();
     }
 }
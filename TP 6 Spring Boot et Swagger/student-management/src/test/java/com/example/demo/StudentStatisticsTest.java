@@ -0,0 +1,120 @@
+package com.example.demo;
+
+import com.example.demo.entities.Student;
+import com.example.demo.services.StudentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StudentStatisticsTest {
+    
+    private static final int NB_STUDENTS = Integer.getInteger("benchmark.students", 1_000_000);
+    
+    @Autowired
+    private StudentService studentService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @BeforeAll
+    void insertStudents() {
+        // Birth dates spread over 40 years, inserted in one statement
+        jdbcTemplate.update("INSERT INTO student (nom, prenom, date_naissance, annee_naissance) "
+                + "SELECT 'NOM' || x, 'PRENOM', DATEADD('DAY', MOD(x, 14610), DATE '1970-01-01'), "
+                + "YEAR(DATEADD('DAY', MOD(x, 14610), DATE '1970-01-01')) "
+                + "FROM SYSTEM_RANGE(1, " + NB_STUDENTS + ")");
+    }
+    
+    @Test
+    void testFindByYearMatchesYearFunction() {
+        // Given: the former query, applying YEAR() to every row
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList(
+                "SELECT YEAR(date_naissance) AS y, COUNT(*) AS c FROM student GROUP BY YEAR(date_naissance)");
+        studentService.findNbrStudentByYear();
+        long yearFunctionMs = Long.MAX_VALUE;
+        long indexedMs = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            jdbcTemplate.queryForList("SELECT YEAR(date_naissance) AS y, COUNT(*) AS c FROM student GROUP BY YEAR(date_naissance)");
+            yearFunctionMs = Math.min(yearFunctionMs, (System.nanoTime() - start) / 1_000_000);
+            cacheManager.getCache(StudentService.STUDENTS_BY_YEAR_CACHE).clear();
+            start = System.nanoTime();
+            studentService.findNbrStudentByYear();
+            indexedMs = Math.min(indexedMs, (System.nanoTime() - start) / 1_000_000);
+        }
+        
+        // When
+        cacheManager.getCache(StudentService.STUDENTS_BY_YEAR_CACHE).clear();
+        Collection<Object[]> indexed = studentService.findNbrStudentByYear();
+        long start = System.nanoTime();
+        Collection<Object[]> cached = studentService.findNbrStudentByYear();
+        long cachedMicros = (System.nanoTime() - start) / 1_000;
+        
+        // Then
+        System.out.printf("findNbrStudentByYear over %d students: YEAR() %d ms, annee_naissance %d ms, cache %d us%n",
+                NB_STUDENTS, yearFunctionMs, indexedMs, cachedMicros);
+        assertEquals(toMap(expected), toMap(indexed));
+        assertSame(indexed, cached);
+    }
+    
+    @Test
+    void testWritesEvictStatistics() {
+        // Given
+        Collection<Object[]> before = studentService.findNbrStudentByYear();
+        long countBefore = studentService.countStudents();
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(1901, Calendar.MARCH, 15);
+        
+        // When
+        Student student = studentService.save(new Student("LACHGAR", "Mohamed", calendar.getTime()));
+        Collection<Object[]> afterSave = studentService.findNbrStudentByYear();
+        
+        // Then
+        assertEquals(1901, student.getAnneeNaissance());
+        assertNotSame(before, afterSave);
+        assertEquals(1L, toMap(afterSave).get(1901));
+        assertEquals(countBefore + 1, studentService.countStudents());
+        
+        // When
+        studentService.delete(student.getId());
+        
+        // Then
+        assertEquals(null, toMap(studentService.findNbrStudentByYear()).get(1901));
+        assertEquals(countBefore, studentService.countStudents());
+    }
+    
+    private static Map<Integer, Long> toMap(List<Map<String, Object>> rows) {
+        Map<Integer, Long> map = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            map.put(((Number) row.get("Y")).intValue(), ((Number) row.get("C")).longValue());
+        }
+        return map;
+    }
+    
+    private static Map<Integer, Long> toMap(Collection<Object[]> rows) {
+        Map<Integer, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+}
@@ -1,9 +1,16 @@
 package ma.ws.jaxrs.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import ma.ws.jaxrs.controllers.CompteRestJaxRSAPI;
+import ma.ws.jaxrs.services.CompteService;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 public class MyConfig {
@@ -14,4 +21,26 @@ public class MyConfig {
         jerseyServlet.register(CompteRestJaxRSAPI.class);
         return jerseyServlet;
     }
+
+    // Pool borné des opérations lentes de CompteRestJaxRSAPI (@Suspended AsyncResponse) :
+    // les threads du conteneur sont libérés pendant l'accès à la base
+    @Bean
+    public ThreadPoolTaskExecutor comptesExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("comptes-");
+        return executor;
+    }
+
+    // Cache des comptes par identifiant, borné à banque.comptes-cache-size entrées.
+    // Transactionnel : les évictions faites dans une transaction ont lieu après son commit, et pas du tout
+    // si elle est annulée ; une lecture entre la modification et le commit ne laisse pas l'ancien état en cache
+    @Bean
+    public CacheManager cacheManager(@Value("${banque.comptes-cache-size:10000}") long taille) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(CompteService.COMPTES_CACHE);
+        caffeine.setCaffeine(Caffeine.newBuilder().maximumSize(taille));
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
 }
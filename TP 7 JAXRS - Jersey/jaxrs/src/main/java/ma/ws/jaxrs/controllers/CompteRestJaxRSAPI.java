@@ -1,35 +1,130 @@
 package ma.ws.jaxrs.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
 import jakarta.ws.rs.*;
-import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.*;
+import jakarta.ws.rs.ext.ContextResolver;
+import jakarta.ws.rs.ext.Providers;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
 import ma.ws.jaxrs.entities.Compte;
 import ma.ws.jaxrs.repositories.CompteRepository;
+import ma.ws.jaxrs.services.CompteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Component
 @Path("/banque")
 public class CompteRestJaxRSAPI {
 
+    // Doit rester égal au fetch size de CompteRepository.streamAll
+    private static final int STREAM_BATCH_SIZE = 1000;
+
     @Autowired
     private CompteRepository compteRepository;
 
-    // READ: Récupérer tous les comptes (JSON et XML)
+    @Autowired
+    private CompteService compteService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("comptesExecutor")
+    private AsyncTaskExecutor comptesExecutor;
+
+    // Délai maximal d'une opération asynchrone avant de répondre 503
+    @Value("${banque.async-timeout-seconds:30}")
+    private long asyncTimeoutSeconds;
+
+    private final JAXBContext jaxbContext = createJaxbContext();
+
+    // READ: Récupérer tous les comptes (JSON et XML), hors du thread du conteneur
     @Path("/comptes")
     @GET
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
-    public List<Compte> getComptes() {
-        return compteRepository.findAll();
+    public void getComptes(@Suspended AsyncResponse asyncResponse) {
+        // GenericEntity : le type List<Compte> est nécessaire au writer XML de Jersey
+        resumeAsync(asyncResponse, () -> new GenericEntity<List<Compte>>(compteRepository.findAll()) {});
+    }
+
+    // READ: Récupérer tous les comptes en flux (JSON et XML) : chaque compte est écrit dès qu'il est lu
+    // sur le curseur, puis détaché, sans construire la liste complète ni la réponse en mémoire
+    @Path("/comptes/stream")
+    @GET
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public Response streamComptes(@Context HttpHeaders headers, @Context Providers providers) {
+        boolean xml = headers.getAcceptableMediaTypes().stream()
+                .filter(type -> type.isCompatible(MediaType.APPLICATION_JSON_TYPE) || type.isCompatible(MediaType.APPLICATION_XML_TYPE))
+                .findFirst()
+                .map(type -> !type.isWildcardType() && type.isCompatible(MediaType.APPLICATION_XML_TYPE))
+                .orElse(false);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        StreamingOutput body = out -> readOnly.executeWithoutResult(status -> {
+            try (Stream<Compte> comptes = compteRepository.streamAll()) {
+                if (xml) {
+                    writeXml(comptes, out);
+                } else {
+                    writeJson(comptes, out, providers);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return Response.ok(body, xml ? MediaType.APPLICATION_XML_TYPE : MediaType.APPLICATION_JSON_TYPE).build();
     }
 
-    // READ: Récupérer un compte par son identifiant (JSON et XML)
+    // READ: Récupérer un compte par son identifiant (JSON et XML), avec ETag et GET conditionnel :
+    // si le client présente l'ETag courant (If-None-Match), la réponse est un 304 sans corps.
+    // Le compte vient du cache de CompteService : un GET, conditionnel ou non, ne lit la base qu'au premier appel
+    // ou après une modification du compte par cette API
     @Path("/comptes/{id}")
     @GET
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
-    public Compte getCompte(@PathParam("id") Long id) {
-        return compteRepository.findById(id).orElse(null);
+    public Response getCompte(@PathParam("id") Long id, @Context Request request) {
+        Compte compte = compteService.findById(id);
+        if (compte == null) {
+            return Response.noContent().build();
+        }
+        EntityTag etag = etagOf(compte);
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        Response.ResponseBuilder builder = notModified != null ? notModified : Response.ok(compte);
+        return builder.tag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .build();
     }
 
     // CREATE: Ajouter un nouveau compte (JSON et XML)
@@ -37,8 +132,8 @@ public class CompteRestJaxRSAPI {
     @POST
     @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
-    public Compte addCompte(Compte compte) {
-        return compteRepository.save(compte);
+    public void addCompte(Compte compte, @Suspended AsyncResponse asyncResponse) {
+        resumeAsync(asyncResponse, () -> compteService.save(compte));
     }
 
     // UPDATE: Mettre à jour un compte existant (JSON et XML)
@@ -46,15 +141,17 @@ public class CompteRestJaxRSAPI {
     @PUT
     @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
-    public Compte updateCompte(@PathParam("id") Long id, Compte compte) {
-        Compte existingCompte = compteRepository.findById(id).orElse(null);
-        if (existingCompte != null) {
-            existingCompte.setSolde(compte.getSolde());
-            existingCompte.setDateCreation(compte.getDateCreation());
-            existingCompte.setType(compte.getType());
-            return compteRepository.save(existingCompte);
-        }
-        return null;
+    public void updateCompte(@PathParam("id") Long id, Compte compte, @Suspended AsyncResponse asyncResponse) {
+        resumeAsync(asyncResponse, () -> {
+            Compte existingCompte = compteRepository.findById(id).orElse(null);
+            if (existingCompte != null) {
+                existingCompte.setSolde(compte.getSolde());
+                existingCompte.setDateCreation(compte.getDateCreation());
+                existingCompte.setType(compte.getType());
+                return compteService.save(existingCompte);
+            }
+            return null;
+        });
     }
 
     // DELETE: Supprimer un compte (retourne 204 No Content)
@@ -62,6 +159,116 @@ public class CompteRestJaxRSAPI {
     @DELETE
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
     public void deleteCompte(@PathParam("id") Long id) {
-        compteRepository.deleteById(id);
+        compteService.deleteById(id);
+    }
+
+    // Exécute l'opération sur comptesExecutor, dans une transaction, et reprend la requête suspendue avec son résultat.
+    // 503 si le pool est saturé ou si l'opération dépasse asyncTimeoutSeconds : dans ce cas l'opération
+    // n'a aucun effet, pour qu'un client qui renvoie sa requête après un 503 ne crée pas de doublon.
+    // L'issue est décidée une seule fois (decided) : soit l'opération avant son commit, soit le délai
+    // d'attente, qui annule alors la tâche et fait annuler sa transaction.
+    private void resumeAsync(AsyncResponse asyncResponse, Supplier<?> operation) {
+        AtomicBoolean decided = new AtomicBoolean();
+        AtomicReference<Future<?>> task = new AtomicReference<>();
+        asyncResponse.setTimeout(asyncTimeoutSeconds, TimeUnit.SECONDS);
+        asyncResponse.setTimeoutHandler(response -> {
+            if (decided.compareAndSet(false, true)) {
+                Future<?> future = task.get();
+                if (future != null) {
+                    future.cancel(true);
+                }
+                response.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE).build());
+            } else {
+                // L'opération valide déjà sa transaction : elle reprendra la requête elle-même
+                response.setTimeout(asyncTimeoutSeconds, TimeUnit.SECONDS);
+            }
+        });
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            task.set(comptesExecutor.submit(() -> {
+                // 503 déjà envoyé pendant l'attente dans la file
+                if (!asyncResponse.isSuspended()) {
+                    return;
+                }
+                try {
+                    Object result = transaction.execute(status -> {
+                        Object value = operation.get();
+                        if (!decided.compareAndSet(false, true)) {
+                            status.setRollbackOnly();
+                        }
+                        return value;
+                    });
+                    asyncResponse.resume(result);
+                } catch (RuntimeException e) {
+                    asyncResponse.resume(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            decided.set(true);
+            asyncResponse.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE).build());
+        }
+    }
+
+    // ETag faible : les représentations JSON et XML d'un même état partagent la même valeur.
+    // Construit à partir de l'état complet (et non d'un hash 32 bits) : deux états différents
+    // ne peuvent pas produire le même ETag, donc jamais de 304 sur une représentation périmée
+    private static EntityTag etagOf(Compte compte) {
+        String etat = compte.getId()
+                + ":" + Double.toString(compte.getSolde())
+                + ":" + (compte.getDateCreation() == null ? "" : compte.getDateCreation().getTime())
+                + ":" + (compte.getType() == null ? "" : compte.getType().name());
+        return new EntityTag(etat, true);
+    }
+
+    // Même ObjectMapper que celui du writer JSON de Jersey
+    private void writeJson(Stream<Compte> comptes, OutputStream out, Providers providers) throws IOException {
+        ContextResolver<ObjectMapper> resolver = providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE);
+        ObjectMapper objectMapper = resolver != null ? resolver.getContext(Compte.class) : null;
+        if (objectMapper == null) {
+            objectMapper = new ObjectMapper();
+        }
+        // Sans flush après chaque compte : le conteneur envoie des blocs pleins
+        ObjectWriter writer = objectMapper.writerFor(Compte.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Iterator<Compte> iterator = comptes.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                if (++count % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    // Même forme que la liste sérialisée par Jersey pour /comptes : <comptes><compte>...</compte></comptes>
+    private void writeXml(Stream<Compte> comptes, OutputStream out) throws IOException {
+        try {
+            Marshaller marshaller = jaxbContext.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><comptes>".getBytes(StandardCharsets.UTF_8));
+            Iterator<Compte> iterator = comptes.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                marshaller.marshal(iterator.next(), out);
+                if (++count % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+            out.write("</comptes>".getBytes(StandardCharsets.UTF_8));
+        } catch (JAXBException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static JAXBContext createJaxbContext() {
+        try {
+            return JAXBContext.newInstance(Compte.class);
+        } catch (JAXBException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -1,9 +1,24 @@
 package ma.ws.jaxrs.repositories;
 
+import jakarta.persistence.QueryHint;
 import ma.ws.jaxrs.entities.Compte;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface CompteRepository extends JpaRepository<Compte, Long> {
+
+    // Lecture en flux sur un curseur JDBC, sans instantané des entités pour le dirty checking.
+    // Doit être consommé dans une transaction et fermé après usage.
+    @Query("select c from Compte c order by c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Compte> streamAll();
 }
@@ -0,0 +1,35 @@
+package ma.ws.jaxrs.services;
+
+import ma.ws.jaxrs.entities.Compte;
+import ma.ws.jaxrs.repositories.CompteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CompteService {
+
+    public static final String COMPTES_CACHE = "comptes";
+
+    @Autowired
+    private CompteRepository compteRepository;
+
+    // Compte lu pour GET /banque/comptes/{id}, gardé en cache jusqu'à sa modification ou sa suppression.
+    // L'instance en cache est partagée entre les requêtes : elle ne doit être que lue
+    @Cacheable(cacheNames = COMPTES_CACHE, unless = "#result == null")
+    public Compte findById(Long id) {
+        return compteRepository.findById(id).orElse(null);
+    }
+
+    // Création ou mise à jour : un compte créé avec un identifiant existant remplace celui-ci
+    @CacheEvict(cacheNames = COMPTES_CACHE, key = "#result.id")
+    public Compte save(Compte compte) {
+        return compteRepository.save(compte);
+    }
+
+    @CacheEvict(cacheNames = COMPTES_CACHE, key = "#id")
+    public void deleteById(Long id) {
+        compteRepository.deleteById(id);
+    }
+}
@@ -0,0 +1,331 @@
+package ma.ws.jaxrs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ContextResolver;
+import ma.ws.jaxrs.controllers.CompteRestJaxRSAPI;
+import ma.ws.jaxrs.entities.Compte;
+import ma.ws.jaxrs.entities.TypeCompte;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests et mesures de CompteRestJaxRSAPI dans un conteneur Jersey embarqué (Grizzly),
+ * sur le contexte Spring de l'application (base H2 en mémoire).
+ */
+class CompteRestJaxRSAPITests extends JerseyTest {
+
+	private static final int NB_COMPTES = 200_000;
+
+	private static final int NB_LECTURES = 2_000;
+
+	private static ConfigurableApplicationContext context;
+
+	@BeforeAll
+	static void demarrerSpring() {
+		context = new SpringApplicationBuilder(JaxrsApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.jpa.show-sql=false", "spring.datasource.url=jdbc:h2:mem:banque-tests;DB_CLOSE_DELAY=-1")
+				.run();
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		List<Object[]> lignes = new ArrayList<>();
+		for (int i = 0; i < NB_COMPTES; i++) {
+			lignes.add(new Object[] { i * 0.5, Date.valueOf(LocalDate.of(2020, 1, 1).plusDays(i % 1000)), i % 2 });
+			if (lignes.size() == 10_000) {
+				jdbcTemplate.batchUpdate("insert into compte (solde, date_creation, type) values (?, ?, ?)", lignes);
+				lignes.clear();
+			}
+		}
+	}
+
+	@AfterAll
+	static void arreterSpring() {
+		context.close();
+	}
+
+	// Même configuration que JerseyAutoConfiguration : ressources prises dans le contexte Spring,
+	// sérialisation JSON avec l'ObjectMapper de Spring
+	@Override
+	protected Application configure() {
+		ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+		return new ResourceConfig(CompteRestJaxRSAPI.class)
+				.property("contextConfig", context)
+				.register((ContextResolver<ObjectMapper>) type -> objectMapper);
+	}
+
+	@BeforeEach
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@AfterEach
+	@Override
+	public void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	void getCompteRenvoie304QuandLEtagNaPasChange() {
+		Response premiere = target("/banque/comptes/1").request(MediaType.APPLICATION_JSON).get();
+		assertEquals(200, premiere.getStatus());
+		EntityTag etag = premiere.getEntityTag();
+		assertNotNull(etag);
+		assertTrue(etag.isWeak());
+		premiere.close();
+
+		Response conditionnelle = target("/banque/comptes/1").request(MediaType.APPLICATION_XML)
+				.header(HttpHeaders.IF_NONE_MATCH, etag).get();
+		assertEquals(304, conditionnelle.getStatus());
+		assertEquals(etag, conditionnelle.getEntityTag());
+		assertFalse(conditionnelle.hasEntity());
+		conditionnelle.close();
+	}
+
+	@Test
+	void updateCompteChangeLEtag() {
+		Compte compte = new Compte(null, 10, new java.util.Date(), TypeCompte.COURANT);
+		Compte cree = target("/banque/comptes").request(MediaType.APPLICATION_JSON)
+				.post(Entity.json(compte), Compte.class);
+		assertNotNull(cree.getId());
+		String chemin = "/banque/comptes/" + cree.getId();
+		EntityTag avant = target(chemin).request(MediaType.APPLICATION_JSON).get().getEntityTag();
+
+		cree.setSolde(20);
+		Compte modifie = target(chemin).request(MediaType.APPLICATION_JSON).put(Entity.json(cree), Compte.class);
+		assertEquals(20, modifie.getSolde());
+
+		Response apres = target(chemin).request(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.IF_NONE_MATCH, avant).get();
+		assertEquals(200, apres.getStatus());
+		assertNotEquals(avant, apres.getEntityTag());
+		assertEquals(20, apres.readEntity(Compte.class).getSolde());
+	}
+
+	@Test
+	void getCompteServiDuCacheJusquALaModification() {
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		Compte cree = target("/banque/comptes").request(MediaType.APPLICATION_JSON)
+				.post(Entity.json(new Compte(null, 10, new java.util.Date(), TypeCompte.COURANT)), Compte.class);
+		String chemin = "/banque/comptes/" + cree.getId();
+		EntityTag etag = target(chemin).request(MediaType.APPLICATION_JSON).get().getEntityTag();
+
+		// Modification hors de l'API : le compte en cache est servi sans relire la base
+		jdbcTemplate.update("update compte set solde = 99 where id = ?", cree.getId());
+		Response conditionnelle = target(chemin).request(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.IF_NONE_MATCH, etag).get();
+		assertEquals(304, conditionnelle.getStatus());
+		conditionnelle.close();
+		assertEquals(10, target(chemin).request(MediaType.APPLICATION_JSON).get(Compte.class).getSolde());
+
+		// PUT : le compte est retiré du cache après le commit, le GET suivant relit la base
+		cree.setSolde(20);
+		target(chemin).request(MediaType.APPLICATION_JSON).put(Entity.json(cree), Compte.class);
+		Response apres = target(chemin).request(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.IF_NONE_MATCH, etag).get();
+		assertEquals(200, apres.getStatus());
+		assertEquals(20, apres.readEntity(Compte.class).getSolde());
+
+		// DELETE : plus de compte en cache
+		assertEquals(204, target(chemin).request().delete().getStatus());
+		assertEquals(204, target(chemin).request(MediaType.APPLICATION_JSON).get().getStatus());
+	}
+
+	@Test
+	void etagDifferentPourDeuxEtatsDeMemeHash() {
+		// Même Double.hashCode : un ETag dérivé d'un hash 32 bits aurait renvoyé 304 sur l'ancien état
+		double solde = 1.0;
+		double soldeMemeHash = Double.longBitsToDouble(0x400000007FF00000L);
+		assertEquals(Double.hashCode(solde), Double.hashCode(soldeMemeHash));
+
+		Compte cree = target("/banque/comptes").request(MediaType.APPLICATION_JSON)
+				.post(Entity.json(new Compte(null, solde, new java.util.Date(), TypeCompte.EPARGNE)), Compte.class);
+		String chemin = "/banque/comptes/" + cree.getId();
+		Response premiere = target(chemin).request(MediaType.APPLICATION_JSON).get();
+		EntityTag avant = premiere.getEntityTag();
+		Compte lu = premiere.readEntity(Compte.class);
+
+		lu.setSolde(soldeMemeHash);
+		target(chemin).request(MediaType.APPLICATION_JSON).put(Entity.json(lu), Compte.class);
+
+		Response apres = target(chemin).request(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.IF_NONE_MATCH, avant).get();
+		assertEquals(200, apres.getStatus());
+		assertNotEquals(avant, apres.getEntityTag());
+		assertEquals(soldeMemeHash, apres.readEntity(Compte.class).getSolde());
+	}
+
+	@Test
+	void poolSatureRenvoie503() {
+		ThreadPoolTaskExecutor executor = context.getBean("comptesExecutor", ThreadPoolTaskExecutor.class);
+		CountDownLatch liberer = new CountDownLatch(1);
+		try {
+			// Tous les threads occupés et la file pleine : la tâche suivante est refusée
+			try {
+				while (true) {
+					executor.execute(() -> attendre(liberer));
+				}
+			} catch (TaskRejectedException e) {
+				// pool saturé
+			}
+			Response response = target("/banque/comptes").request(MediaType.APPLICATION_JSON)
+					.post(Entity.json(new Compte(null, 10, new java.util.Date(), TypeCompte.COURANT)));
+			assertEquals(503, response.getStatus());
+			response.close();
+		} finally {
+			liberer.countDown();
+		}
+	}
+
+	@Test
+	void operationAuDelaDuDelaiRenvoie503SansCreerLeCompte() throws InterruptedException {
+		CompteRestJaxRSAPI api = context.getBean(CompteRestJaxRSAPI.class);
+		ThreadPoolTaskExecutor executor = context.getBean("comptesExecutor", ThreadPoolTaskExecutor.class);
+		Object delai = ReflectionTestUtils.getField(api, "asyncTimeoutSeconds");
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		CountDownLatch liberer = new CountDownLatch(1);
+		ReflectionTestUtils.setField(api, "asyncTimeoutSeconds", 1L);
+		try {
+			long comptesAvant = compterComptes(jdbcTemplate);
+			// Autant de tâches bloquantes que de threads possibles : l'opération reste dans la file
+			for (int i = 0; i < executor.getMaxPoolSize(); i++) {
+				executor.execute(() -> attendre(liberer));
+			}
+			long debut = System.nanoTime();
+			Response response = target("/banque/comptes").request(MediaType.APPLICATION_JSON)
+					.post(Entity.json(new Compte(null, 10, new java.util.Date(), TypeCompte.COURANT)));
+			long millis = (System.nanoTime() - debut) / 1_000_000;
+			assertEquals(503, response.getStatus());
+			assertTrue(millis >= 1000 && millis < 10_000, millis + " ms");
+			response.close();
+
+			// Une fois le pool libéré, le POST abandonné ne doit pas créer le compte
+			liberer.countDown();
+			attendrePoolInactif(executor);
+			assertEquals(comptesAvant, compterComptes(jdbcTemplate));
+		} finally {
+			ReflectionTestUtils.setField(api, "asyncTimeoutSeconds", delai);
+			liberer.countDown();
+		}
+	}
+
+	private static long compterComptes(JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForObject("select count(*) from compte", Long.class);
+	}
+
+	private static void attendrePoolInactif(ThreadPoolTaskExecutor executor) throws InterruptedException {
+		long limite = System.nanoTime() + 10_000_000_000L;
+		while (executor.getActiveCount() > 0 || !executor.getThreadPoolExecutor().getQueue().isEmpty()) {
+			assertTrue(System.nanoTime() < limite, "comptesExecutor toujours occupé");
+			Thread.sleep(10);
+		}
+	}
+
+	private static void attendre(CountDownLatch liberer) {
+		try {
+			liberer.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	void streamIdentiqueALaListe() throws IOException {
+		ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+		JsonNode liste = objectMapper.readTree(target("/banque/comptes").request(MediaType.APPLICATION_JSON).get(String.class));
+		JsonNode flux = objectMapper.readTree(target("/banque/comptes/stream").request(MediaType.APPLICATION_JSON).get(String.class));
+		assertTrue(liste.size() >= NB_COMPTES);
+		assertEquals(liste, flux);
+
+		String listeXml = target("/banque/comptes").request(MediaType.APPLICATION_XML).get(String.class);
+		String fluxXml = target("/banque/comptes/stream").request(MediaType.APPLICATION_XML).get(String.class);
+		assertEquals(listeXml, fluxXml);
+	}
+
+	@Test
+	void mesurerListeEtFlux() throws IOException {
+		for (int i = 0; i < 2; i++) {
+			mesurer("/banque/comptes", MediaType.APPLICATION_JSON, i == 1);
+			mesurer("/banque/comptes/stream", MediaType.APPLICATION_JSON, i == 1);
+			mesurer("/banque/comptes", MediaType.APPLICATION_XML, i == 1);
+			mesurer("/banque/comptes/stream", MediaType.APPLICATION_XML, i == 1);
+		}
+	}
+
+	@Test
+	void mesurerGetConditionnel() {
+		EntityTag etag = target("/banque/comptes/1").request(MediaType.APPLICATION_JSON).get().getEntityTag();
+		for (int i = 0; i < 2; i++) {
+			long octetsComplets = 0;
+			long debut = System.nanoTime();
+			for (int j = 0; j < NB_LECTURES; j++) {
+				octetsComplets += target("/banque/comptes/1").request(MediaType.APPLICATION_JSON).get(byte[].class).length;
+			}
+			long complets = System.nanoTime() - debut;
+
+			long octetsConditionnels = 0;
+			debut = System.nanoTime();
+			for (int j = 0; j < NB_LECTURES; j++) {
+				Response response = target("/banque/comptes/1").request(MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_NONE_MATCH, etag).get();
+				assertEquals(304, response.getStatus());
+				octetsConditionnels += response.readEntity(byte[].class).length;
+			}
+			long conditionnels = System.nanoTime() - debut;
+			if (i == 1) {
+				System.out.printf("GET /comptes/1 x%d : 200 %.0f us/req, %d octets ; 304 %.0f us/req, %d octets%n",
+						NB_LECTURES, complets / 1e3 / NB_LECTURES, octetsComplets,
+						conditionnels / 1e3 / NB_LECTURES, octetsConditionnels);
+			}
+		}
+	}
+
+	private void mesurer(String chemin, String mediaType, boolean afficher) throws IOException {
+		long debut = System.nanoTime();
+		long premierOctet = 0;
+		long octets = 0;
+		byte[] tampon = new byte[8192];
+		try (InputStream in = target(chemin).request(mediaType).get(InputStream.class)) {
+			int lus;
+			while ((lus = in.read(tampon)) != -1) {
+				if (octets == 0) {
+					premierOctet = System.nanoTime() - debut;
+				}
+				octets += lus;
+			}
+		}
+		long total = System.nanoTime() - debut;
+		if (afficher) {
+			System.out.printf("%-22s %-16s premier octet %5d ms, total %5d ms, %d octets%n",
+					chemin, mediaType, premierOctet / 1_000_000, total / 1_000_000, octets);
+		}
+	}
+}
@@ -1,25 +1,132 @@
 package ma.rest.spring.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import jakarta.persistence.EntityManager;
 import ma.rest.spring.entities.Compte;
 import ma.rest.spring.repositories.CompteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 @RestController
 @RequestMapping("/banque")
 public class CompteController {
 
+    // Taille maximale d'une page, pour qu'un client ne puisse pas redemander toute la table
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // Doit rester égal au fetch size de CompteRepository.streamAll
+    private static final int STREAM_BATCH_SIZE = 1000;
+
     @Autowired
     private CompteRepository compteRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Même configuration que le convertisseur XML de Spring MVC
+    private final XmlMapper xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+
     // READ: Récupérer tous les comptes (JSON et XML)
     @GetMapping(value = "/comptes", produces = { "application/json", "application/xml" })
     public List<Compte> getAllComptes() {
         return compteRepository.findAll();
     }
 
+    // READ: Récupérer une page de comptes triés par identifiant (JSON et XML)
+    @GetMapping(value = "/comptes", params = "page", produces = { "application/json", "application/xml" })
+    public PagedModel<Compte> getComptesPage(@RequestParam int page,
+                                             @RequestParam(defaultValue = "20") int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by("id"));
+        return new PagedModel<>(compteRepository.findAll(pageRequest));
+    }
+
+    // READ: Récupérer tous les comptes en flux (JSON et XML) : chaque compte est écrit dès qu'il est lu
+    // sur le curseur, puis détaché, sans construire la liste complète ni la réponse en mémoire
+    @GetMapping(value = "/comptes/stream", produces = { "application/json", "application/xml" })
+    public ResponseEntity<StreamingResponseBody> streamComptes(
+            @RequestHeader(value = "Accept", defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+        boolean xml = accept.contains(MediaType.APPLICATION_XML_VALUE) && !accept.contains(MediaType.APPLICATION_JSON_VALUE);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        StreamingResponseBody body = out -> readOnly.executeWithoutResult(status -> {
+            try (Stream<Compte> comptes = compteRepository.streamAll()) {
+                if (xml) {
+                    writeXml(comptes, out);
+                } else {
+                    writeJson(comptes, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(xml ? MediaType.APPLICATION_XML : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private void writeJson(Stream<Compte> comptes, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            write(comptes, objectMapper.writerFor(Compte.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE), generator, false);
+            generator.writeEndArray();
+        }
+    }
+
+    // Même forme que la liste sérialisée par /comptes : <List><item>...</item></List>
+    private void writeXml(Stream<Compte> comptes, OutputStream out) throws IOException {
+        try (ToXmlGenerator generator = xmlMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setNextName(new QName("List"));
+            generator.writeStartObject();
+            write(comptes, xmlMapper.writerFor(Compte.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE), generator, true);
+            generator.writeEndObject();
+        }
+    }
+
+    // Le writer ne vide pas le flux après chaque compte : le conteneur envoie des blocs pleins.
+    // Le contexte de persistance est vidé à chaque lot lu : seuls STREAM_BATCH_SIZE comptes restent en mémoire
+    private void write(Stream<Compte> comptes, ObjectWriter writer, JsonGenerator generator, boolean xml) throws IOException {
+        Iterator<Compte> iterator = comptes.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            if (xml) {
+                generator.writeFieldName("item");
+            }
+            writer.writeValue(generator, iterator.next());
+            if (++count % STREAM_BATCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
     // READ: Récupérer un compte par son identifiant (JSON et XML)
     @GetMapping(value = "/comptes/{id}", produces = { "application/json", "application/xml" })
     public ResponseEntity<Compte> getCompteById(@PathVariable Long id) {
@@ -56,4 +163,4 @@ public class CompteController {
                     return ResponseEntity.ok().<Void>build();
                 }).orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
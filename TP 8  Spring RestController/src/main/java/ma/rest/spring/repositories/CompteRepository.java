@@ -1,9 +1,23 @@
 package ma.rest.spring.repositories;
 
+import jakarta.persistence.QueryHint;
 import ma.rest.spring.entities.Compte;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface CompteRepository extends JpaRepository<Compte, Long> {
+
+    // Parcours de tous les comptes sur un curseur JDBC, à consommer dans une transaction
+    @Query("select c from Compte c order by c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Compte> streamAll();
 }
\ No newline at end of file
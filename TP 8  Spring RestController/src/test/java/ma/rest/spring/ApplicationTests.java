@@ -3,7 +3,7 @@ package ma.rest.spring;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(classes = MsBanqueApplication.class)
 class ApplicationTests {
 
 	@Test
@@ -0,0 +1,195 @@
+package ma.rest.spring;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = MsBanqueApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CompteControllerTests {
+
+	private static final int NB_COMPTES = Integer.getInteger("benchmark.comptes", 1_000_000);
+
+	private static final long PIC_TAS_FLUX_MAX = 64L << 20;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private long total;
+
+	@BeforeAll
+	void insererComptes() {
+		jdbcTemplate.update("INSERT INTO compte (solde, date_creation, type) "
+				+ "SELECT MOD(x, 9000), DATE '2024-01-01', CASE WHEN MOD(x, 2) = 0 THEN 'COURANT' ELSE 'EPARGNE' END "
+				+ "FROM SYSTEM_RANGE(1, " + NB_COMPTES + ")");
+		total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM compte", Long.class);
+	}
+
+	@Test
+	void pageDeComptes() throws Exception {
+		String json = get("/banque/comptes?page=2&size=50", "application/json").body();
+		assertTrue(json.contains("\"size\":50"));
+		assertTrue(json.contains("\"number\":2"));
+		assertTrue(json.contains("\"totalElements\":" + total));
+		assertEquals(50, count(json, "\"solde\""));
+
+		String xml = get("/banque/comptes?page=0&size=5000", "application/xml").body();
+		assertEquals(1000, count(xml, "<solde>"));
+	}
+
+	@Test
+	void fluxJson() throws Exception {
+		mesurerFlux("application/json", "\"solde\"");
+	}
+
+	@Test
+	void fluxXml() throws Exception {
+		String debut = get("/banque/comptes/stream", "application/xml", 200);
+		assertTrue(debut.startsWith("<List><item><id>"), debut);
+		mesurerFlux("application/xml", "<solde>");
+	}
+
+	@Test
+	void fluxCompareALaListeComplete() throws Exception {
+		// Référence : /comptes construit la liste complète puis la réponse avant d'envoyer le premier octet
+		Mesure liste = mesurer("/banque/comptes", "application/json", "\"solde\"");
+		Mesure flux = mesurerFlux("application/json", "\"solde\"");
+		assertTrue(flux.premierOctet < liste.premierOctet,
+				"premier octet du flux après celui de la liste : " + flux.premierOctet / 1_000_000 + " ms contre "
+						+ liste.premierOctet / 1_000_000 + " ms");
+		assertTrue(flux.picTas < liste.picTas / 4,
+				"pic du tas du flux +" + (flux.picTas >> 20) + " Mo contre +" + (liste.picTas >> 20) + " Mo pour la liste");
+	}
+
+	// Le pic du tas du flux ne dépend pas du nombre de comptes : un lot de STREAM_BATCH_SIZE comptes,
+	// les tampons du curseur et de la réponse
+	private Mesure mesurerFlux(String type, String marqueur) throws Exception {
+		Mesure flux = mesurer("/banque/comptes/stream", type, marqueur);
+		assertTrue(flux.picTas < PIC_TAS_FLUX_MAX, "pic du tas du flux +" + (flux.picTas >> 20) + " Mo");
+		return flux;
+	}
+
+	private Mesure mesurer(String chemin, String type, String marqueur) throws Exception {
+		// Pic du tas vivant : occupation relevée après chaque GC, pendant toute la requête
+		System.gc();
+		long base = tasApresGc();
+		AtomicLong pic = new AtomicLong(base);
+		AtomicBoolean fini = new AtomicBoolean();
+		Thread echantillonneur = new Thread(() -> {
+			while (!fini.get()) {
+				pic.accumulateAndGet(tasApresGc(), Math::max);
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		});
+		echantillonneur.setDaemon(true);
+		echantillonneur.start();
+
+		long debut = System.nanoTime();
+		HttpResponse<InputStream> response = client.send(requete(chemin, type), HttpResponse.BodyHandlers.ofInputStream());
+		long premierOctet = 0;
+		long octets = 0;
+		long comptes = 0;
+		byte[] motif = marqueur.getBytes(StandardCharsets.UTF_8);
+		int correspondance = 0;
+		try (InputStream in = response.body()) {
+			byte[] buffer = new byte[64 * 1024];
+			int lus;
+			while ((lus = in.read(buffer)) > 0) {
+				if (premierOctet == 0) {
+					premierOctet = System.nanoTime();
+				}
+				for (int i = 0; i < lus; i++) {
+					correspondance = buffer[i] == motif[correspondance] ? correspondance + 1 : (buffer[i] == motif[0] ? 1 : 0);
+					if (correspondance == motif.length) {
+						comptes++;
+						correspondance = 0;
+					}
+				}
+				octets += lus;
+			}
+		}
+		long fin = System.nanoTime();
+		fini.set(true);
+		echantillonneur.join();
+
+		System.out.printf("%s (%s) : %d comptes, %d Mo, premier octet %d ms, total %d ms, pic du tas vivant +%d Mo%n",
+				chemin, type, comptes, octets >> 20, (premierOctet - debut) / 1_000_000, (fin - debut) / 1_000_000,
+				(pic.get() - base) >> 20);
+		assertEquals(200, response.statusCode());
+		assertEquals(total, comptes);
+		return new Mesure(premierOctet - debut, pic.get() - base);
+	}
+
+	// Durées en nanosecondes, pic du tas vivant en octets au-delà de celui d'avant la requête
+	private static final class Mesure {
+		final long premierOctet;
+		final long picTas;
+
+		Mesure(long premierOctet, long picTas) {
+			this.premierOctet = premierOctet;
+			this.picTas = picTas;
+		}
+	}
+
+	private static long tasApresGc() {
+		long used = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+				used += pool.getCollectionUsage().getUsed();
+			}
+		}
+		return used;
+	}
+
+	private HttpResponse<String> get(String chemin, String type) throws Exception {
+		return client.send(requete(chemin, type), HttpResponse.BodyHandlers.ofString());
+	}
+
+	// Lit seulement les premiers caractères de la réponse
+	private String get(String chemin, String type, int longueur) throws Exception {
+		HttpResponse<InputStream> response = client.send(requete(chemin, type), HttpResponse.BodyHandlers.ofInputStream());
+		try (InputStream in = response.body()) {
+			return new String(in.readNBytes(longueur), StandardCharsets.UTF_8);
+		}
+	}
+
+	private HttpRequest requete(String chemin, String type) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + chemin)).header("Accept", type).build();
+	}
+
+	private static int count(String texte, String motif) {
+		int n = 0;
+		for (int i = texte.indexOf(motif); i >= 0; i = texte.indexOf(motif, i + motif.length())) {
+			n++;
+		}
+		return n;
+	}
+}
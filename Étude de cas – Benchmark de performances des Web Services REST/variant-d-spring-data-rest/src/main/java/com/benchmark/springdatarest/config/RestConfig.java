@@ -0,0 +1,21 @@
+package com.benchmark.springdatarest.config;
+
+import com.benchmark.springdatarest.projection.CategorySummary;
+import com.benchmark.springdatarest.projection.ItemSummary;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.web.servlet.config.annotation.CorsRegistry;
+
+@Configuration
+public class RestConfig implements RepositoryRestConfigurer {
+
+    // Spring Data REST ne détecte les @Projection que dans le package des entités :
+    // celles du package projection sont enregistrées explicitement (?projection=itemSummary, categorySummary)
+    @Override
+    public void configureRepositoryRestConfiguration(RepositoryRestConfiguration config, CorsRegistry cors) {
+        config.getProjectionConfiguration()
+                .addProjection(ItemSummary.class)
+                .addProjection(CategorySummary.class);
+    }
+}
@@ -0,0 +1,96 @@
+package com.benchmark.springdatarest.controller;
+
+import com.benchmark.springdatarest.entity.Item;
+import com.benchmark.springdatarest.repository.ItemRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.core.mapping.ResourceMappings;
+import org.springframework.data.rest.core.mapping.ResourceMetadata;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.ProfileController;
+import org.springframework.data.rest.webmvc.ProfileResourceProcessor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.rest.webmvc.support.RepositoryEntityLinks;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Optional;
+
+/**
+ * /items et /items/{id} demandés avec ?projection= : la catégorie, lue par la projection itemSummary,
+ * est chargée par jointure dans la requête de la page. Sans paramètre projection, ou avec une projection
+ * inconnue, findAll et findById restent ceux de Spring Data REST, sans jointure.
+ * La variable {repository} est celle des routes de Spring Data REST, reprise par les tags des métriques.
+ */
+@RepositoryRestController
+public class ItemProjectionController {
+
+    private final ItemRepository itemRepository;
+    private final RepositoryRestConfiguration restConfiguration;
+    private final ResourceMappings resourceMappings;
+    private final RepositoryEntityLinks entityLinks;
+    private final PagedResourcesAssembler<Object> pagedAssembler;
+
+    // L'assembleur de pages est le bean de Spring Data REST : sa résolution comme paramètre échoue
+    // quand spring-boot-starter-hateoas enregistre aussi le sien
+    public ItemProjectionController(ItemRepository itemRepository, RepositoryRestConfiguration restConfiguration,
+                                    ResourceMappings resourceMappings, RepositoryEntityLinks entityLinks,
+                                    PagedResourcesAssembler<Object> pagedAssembler) {
+        this.itemRepository = itemRepository;
+        this.restConfiguration = restConfiguration;
+        this.resourceMappings = resourceMappings;
+        this.entityLinks = entityLinks;
+        this.pagedAssembler = pagedAssembler;
+    }
+
+    // GET /items?projection=itemSummary
+    @GetMapping(path = "/{repository:items}", params = "projection")
+    @ResponseBody
+    public PagedModel<?> getItems(@RequestParam String projection, Pageable pageable,
+                                  PersistentEntityResourceAssembler assembler) {
+        Page<Item> page = isProjection(projection)
+                ? itemRepository.findAllWithCategory(pageable)
+                : itemRepository.findAll(pageable);
+        return toPagedModel(page, assembler);
+    }
+
+    // GET /items/{id}?projection=itemSummary
+    @GetMapping(path = "/{repository:items}/{id}", params = "projection")
+    @ResponseBody
+    public ResponseEntity<EntityModel<?>> getItem(@PathVariable Long id, @RequestParam String projection,
+                                                  PersistentEntityResourceAssembler assembler) {
+        Optional<Item> item = isProjection(projection)
+                ? itemRepository.findWithCategoryById(id)
+                : itemRepository.findById(id);
+        return item.<ResponseEntity<EntityModel<?>>>map(i -> ResponseEntity.ok(assembler.toModel(i)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private boolean isProjection(String projection) {
+        return restConfiguration.getProjectionConfiguration().getProjectionType(Item.class, projection) != null;
+    }
+
+    // Mêmes liens que la collection par défaut de Spring Data REST : pagination, profile et search
+    @SuppressWarnings("unchecked")
+    private PagedModel<?> toPagedModel(Page<?> page, PersistentEntityResourceAssembler assembler) {
+        PagedModel<?> model = page.hasContent()
+                ? pagedAssembler.toModel((Page<Object>) page, assembler)
+                : pagedAssembler.toEmptyModel(page, Item.class);
+        ResourceMetadata metadata = resourceMappings.getMetadataFor(Item.class);
+        model.add(Link.of(ProfileController.getPath(restConfiguration, metadata), ProfileResourceProcessor.PROFILE_REL));
+        if (metadata.getSearchResourceMappings().isExported()) {
+            model.add(entityLinks.linkFor(Item.class)
+                    .slash(metadata.getSearchResourceMappings().getPath())
+                    .withRel(metadata.getSearchResourceMappings().getRel()));
+        }
+        return model;
+    }
+}
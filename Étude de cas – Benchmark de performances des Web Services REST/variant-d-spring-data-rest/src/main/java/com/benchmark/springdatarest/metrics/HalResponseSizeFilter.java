@@ -0,0 +1,146 @@
+package com.benchmark.springdatarest.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Mesure la taille des réponses HAL (métrique http.server.response.size, en octets), avec les mêmes tags
+ * que http.server.requests. La taille est comptée avant la compression gzip du conteneur.
+ * Le corps n'est pas mis en mémoire : seuls les octets écrits sont comptés.
+ */
+public class HalResponseSizeFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "http.server.response.size";
+
+    private final MeterRegistry meterRegistry;
+    private final RestResourceTags restResourceTags;
+
+    public HalResponseSizeFilter(MeterRegistry meterRegistry, RestResourceTags restResourceTags) {
+        this.meterRegistry = meterRegistry;
+        this.restResourceTags = restResourceTags;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CountingResponseWrapper countingResponse = new CountingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            countingResponse.flushWriter();
+            Tags tags = Tags.of("method", request.getMethod(), "status", String.valueOf(response.getStatus()));
+            for (KeyValue keyValue : restResourceTags.keyValues(request)) {
+                tags = tags.and(keyValue.getKey(), keyValue.getValue());
+            }
+            DistributionSummary.builder(METRIC_NAME)
+                    .baseUnit("bytes")
+                    .description("Taille du corps des réponses, avant compression")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(countingResponse.getBytesWritten());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    private static class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        long getBytesWritten() {
+            return outputStream != null ? outputStream.count : 0;
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
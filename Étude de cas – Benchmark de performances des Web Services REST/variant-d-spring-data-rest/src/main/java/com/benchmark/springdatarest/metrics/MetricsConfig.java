@@ -0,0 +1,45 @@
+package com.benchmark.springdatarest.metrics;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Métriques du benchmark : latence (http.server.requests) et taille HAL (http.server.response.size)
+ * par ressource et par projection, pour comparer /items et /items?projection=itemSummary.
+ * Actives seulement avec benchmark.metrics.enabled=true : le filtre enveloppe chaque réponse pour en compter les octets.
+ */
+@Configuration
+@ConditionalOnProperty(name = "benchmark.metrics.enabled", havingValue = "true")
+public class MetricsConfig {
+
+    @Bean
+    public RestResourceTags restResourceTags(Repositories repositories,
+                                             RepositoryRestConfiguration restConfiguration) {
+        return new RestResourceTags(repositories, restConfiguration);
+    }
+
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention(RestResourceTags restResourceTags) {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(restResourceTags.keyValues(context.getCarrier()));
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<HalResponseSizeFilter> halResponseSizeFilter(MeterRegistry meterRegistry,
+                                                                             RestResourceTags restResourceTags) {
+        return new FilterRegistrationBean<>(new HalResponseSizeFilter(meterRegistry, restResourceTags));
+    }
+}
@@ -0,0 +1,65 @@
+package com.benchmark.springdatarest.metrics;
+
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tags communs aux métriques du benchmark : ressource Spring Data REST appelée (items, categories)
+ * et projection demandée. Seules les projections déclarées sont reprises, pour borner la cardinalité.
+ */
+public class RestResourceTags {
+
+    public static final String REPOSITORY = "repository";
+    public static final String PROJECTION = "projection";
+    public static final String NONE = "none";
+
+    private final Repositories repositories;
+    private final RepositoryRestConfiguration restConfiguration;
+    private volatile Set<String> projections;
+
+    public RestResourceTags(Repositories repositories, RepositoryRestConfiguration restConfiguration) {
+        this.repositories = repositories;
+        this.restConfiguration = restConfiguration;
+    }
+
+    public KeyValues keyValues(HttpServletRequest request) {
+        return KeyValues.of(REPOSITORY, repository(request), PROJECTION, projection(request));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String repository(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map) {
+            String repository = ((Map<String, String>) variables).get(REPOSITORY);
+            if (repository != null) {
+                return repository;
+            }
+        }
+        return NONE;
+    }
+
+    private String projection(HttpServletRequest request) {
+        String projection = request.getParameter(PROJECTION);
+        return projection != null && projections().contains(projection) ? projection : NONE;
+    }
+
+    // Calculé au premier appel : les projections sont enregistrées pendant le démarrage de Spring Data REST
+    private Set<String> projections() {
+        Set<String> names = projections;
+        if (names == null) {
+            names = new HashSet<>();
+            for (Class<?> domainType : repositories) {
+                names.addAll(restConfiguration.getProjectionConfiguration().getProjectionsFor(domainType).keySet());
+            }
+            projections = names;
+        }
+        return names;
+    }
+}
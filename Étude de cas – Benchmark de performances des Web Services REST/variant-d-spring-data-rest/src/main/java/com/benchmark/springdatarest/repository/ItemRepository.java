@@ -3,6 +3,7 @@ package com.benchmark.springdatarest.repository;
 import com.benchmark.springdatarest.entity.Item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,16 +12,32 @@ import org.springframework.data.rest.core.annotation.RestResource;
 
 import java.util.Optional;
 
+// La projection itemSummary lit la catégorie de chaque item, ce qui coûtait une requête par catégorie
+// distincte de la page. /items et /items/{id} projetés passent par ItemProjectionController et les
+// variantes *WithCategory (jointure) ; sans projection, findAll et findById ne joignent pas category.
+// Les recherches exportées chargent la catégorie par jointure (@EntityGraph) dans tous les cas.
 @RepositoryRestResource(collectionResourceRel = "items", path = "items")
 public interface ItemRepository extends JpaRepository<Item, Long> {
     
+    @RestResource(exported = false)
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT i FROM Item i")
+    Page<Item> findAllWithCategory(Pageable pageable);
+    
+    @RestResource(exported = false)
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findWithCategoryById(@Param("id") Long id);
+    
     @RestResource(path = "by-sku", rel = "by-sku")
+    @EntityGraph(attributePaths = "category")
     Optional<Item> findBySku(@Param("sku") String sku);
     
     @RestResource(exported = false)
     boolean existsBySku(String sku);
     
     @RestResource(path = "by-category", rel = "by-category")
+    @EntityGraph(attributePaths = "category")
     Page<Item> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
     
     @RestResource(path = "by-category-with-details", rel = "by-category-with-details")
@@ -28,6 +45,7 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     Page<Item> findByCategoryIdWithCategory(@Param("categoryId") Long categoryId, Pageable pageable);
     
     @RestResource(path = "search-name", rel = "search-name")
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT i FROM Item i WHERE i.name LIKE %:name%")
     Page<Item> findByNameContaining(@Param("name") String name, Pageable pageable);
     
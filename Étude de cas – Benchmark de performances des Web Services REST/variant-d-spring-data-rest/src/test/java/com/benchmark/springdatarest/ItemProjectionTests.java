@@ -0,0 +1,177 @@
+package com.benchmark.springdatarest;
+
+import com.benchmark.springdatarest.entity.Category;
+import com.benchmark.springdatarest.metrics.HalResponseSizeFilter;
+import com.benchmark.springdatarest.metrics.RestResourceTags;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Requêtes SQL, latence et taille HAL de /items selon la projection, métriques du benchmark activées.
+ * Mesure complète : -Dbenchmark.rows=100000 (items, répartis sur rows / 50 catégories).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "benchmark.metrics.enabled=true")
+@ActiveProfiles("test")
+@AutoConfigureObservability
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemProjectionTests {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int CATEGORIES = Math.max(1, ITEMS / 50);
+    private static final int ITERATIONS = 31;
+
+    private static final String ITEMS_PAGE = "/api/v1/items?size=100";
+    private static final String ITEM_SUMMARY_PAGE = "/api/v1/items?size=100&projection=itemSummary";
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void insererDonnees() {
+        jdbc.update("INSERT INTO category (code, name, updated_at) "
+                + "SELECT CONCAT('CAT', x), CONCAT('Catégorie ', x), NOW() FROM SYSTEM_RANGE(1, ?)", CATEGORIES);
+        jdbc.update("INSERT INTO item (sku, name, price, stock, category_id, updated_at) "
+                + "SELECT CONCAT('SKU', x), CONCAT('Item ', x), 10.5 + MOD(x, 100), MOD(x, 50), MOD(x, ?) + 1, NOW() "
+                + "FROM SYSTEM_RANGE(1, ?)", CATEGORIES, ITEMS);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void statistiquesActiveesAvecLesMetriques() {
+        assertTrue(statistics.isStatisticsEnabled());
+    }
+
+    @Test
+    void pageItemSummaryEnDeuxRequetesQuelleQueSoitLaTaille() {
+        // Page d'items avec leur catégorie (jointure) puis COUNT : pas de requête par catégorie distincte
+        assertEquals(2, requetes("/api/v1/items?size=20&projection=itemSummary"));
+        assertEquals(2, requetes(ITEM_SUMMARY_PAGE));
+        assertEquals(2, requetes("/api/v1/items/search/by-category?categoryId=5&size=20&projection=itemSummary"));
+        assertEquals(1, requetes("/api/v1/items/1?projection=itemSummary"));
+
+        String body = get("/api/v1/items?size=2&projection=itemSummary").getBody();
+        assertTrue(body.contains("CAT"), "Catégorie absente de la projection : " + body);
+        assertTrue(body.contains("\"search\""), "Lien search absent de la page projetée : " + body);
+        assertEquals(HttpStatus.NOT_FOUND,
+                rest.getForEntity("/api/v1/items/" + (ITEMS + 1) + "?projection=itemSummary", String.class).getStatusCode());
+    }
+
+    @Test
+    void sansProjectionLaCategorieNestPasJointe() {
+        // La jointure n'est faite que pour itemSummary : /items et /items/{id} ne lisent que la table item
+        assertEquals(2, requetes(ITEMS_PAGE));
+        assertEquals(0, categoriesChargees());
+        assertEquals(1, requetes("/api/v1/items/1"));
+        assertEquals(0, categoriesChargees());
+        assertEquals(2, requetes(ITEMS_PAGE + "&projection=inconnue"));
+        assertEquals(0, categoriesChargees());
+
+        requetes(ITEM_SUMMARY_PAGE);
+        assertTrue(categoriesChargees() > 0, "itemSummary doit charger les catégories par jointure");
+    }
+
+    @Test
+    void mesureItemsAvecEtSansProjection() {
+        for (int i = 0; i < 50; i++) {
+            get(ITEMS_PAGE);
+            get(ITEM_SUMMARY_PAGE);
+        }
+        Mesure complet = mesurer(ITEMS_PAGE);
+        Mesure resume = mesurer(ITEM_SUMMARY_PAGE);
+
+        System.out.printf("%d items : %s%n%d items : %s%n", ITEMS, complet, ITEMS, resume);
+
+        assertEquals(2, resume.requetes);
+        assertTrue(resume.requetes <= complet.requetes, "itemSummary ne doit pas ajouter de requête à /items");
+
+        DistributionSummary taille = meterRegistry.find(HalResponseSizeFilter.METRIC_NAME)
+                .tag(RestResourceTags.REPOSITORY, "items")
+                .tag(RestResourceTags.PROJECTION, "itemSummary")
+                .tag("status", "200")
+                .summary();
+        assertNotNull(taille, "Taille HAL non enregistrée pour la projection itemSummary");
+        assertTrue(taille.count() >= ITERATIONS);
+    }
+
+    private long categoriesChargees() {
+        return statistics.getEntityStatistics(Category.class.getName()).getLoadCount();
+    }
+
+    private long requetes(String url) {
+        statistics.clear();
+        get(url);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Médiane et 95e centile de ITERATIONS appels, requêtes SQL et taille du dernier
+    private Mesure mesurer(String url) {
+        long[] durees = new long[ITERATIONS];
+        Mesure mesure = new Mesure(url);
+        for (int i = 0; i < ITERATIONS; i++) {
+            statistics.clear();
+            long debut = System.nanoTime();
+            ResponseEntity<String> reponse = get(url);
+            durees[i] = System.nanoTime() - debut;
+            mesure.requetes = statistics.getPrepareStatementCount();
+            mesure.octets = reponse.getBody().getBytes(StandardCharsets.UTF_8).length;
+        }
+        Arrays.sort(durees);
+        mesure.p50 = durees[ITERATIONS / 2] / 1e6;
+        mesure.p95 = durees[(int) Math.ceil(ITERATIONS * 0.95) - 1] / 1e6;
+        return mesure;
+    }
+
+    private ResponseEntity<String> get(String url) {
+        ResponseEntity<String> reponse = rest.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, reponse.getStatusCode(), url);
+        return reponse;
+    }
+
+    private static final class Mesure {
+        final String url;
+        long requetes;
+        long octets;
+        double p50;
+        double p95;
+
+        Mesure(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s = %d requêtes, p50 %.2f ms, p95 %.2f ms, %d octets", url, requetes, p50, p95, octets);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.benchmark.springdatarest;
+
+import com.benchmark.springdatarest.metrics.MetricsConfig;
+import com.benchmark.springdatarest.metrics.RestResourceTags;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sans benchmark.metrics.enabled : ni filtre de taille HAL, ni statistiques Hibernate.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MetricsDisabledByDefaultTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void metriquesDuBenchmarkDesactivees() {
+        assertEquals(0, context.getBeanNamesForType(MetricsConfig.class).length);
+        assertEquals(0, context.getBeanNamesForType(RestResourceTags.class).length);
+        assertFalse(context.containsBean("halResponseSizeFilter"));
+        assertFalse(entityManagerFactory.unwrap(SessionFactory.class).getStatistics().isStatisticsEnabled());
+    }
+}